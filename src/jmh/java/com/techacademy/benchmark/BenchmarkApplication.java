@@ -0,0 +1,87 @@
+package com.techacademy.benchmark;
+
+import java.util.Arrays;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.techacademy.DailyReportSystemApplication;
+import com.techacademy.datagen.SyntheticDataGenerator;
+import com.techacademy.datagen.SyntheticDataProperties;
+
+// 性能測定用のアプリケーション起動とデータ生成
+// DBはH2(MySQLモード)のメモリDBを使用する(DB接続設定の比較のみMySQLを使用する)
+final class BenchmarkApplication {
+
+    // 従業員1人あたりの日報件数
+    static final int REPORTS_PER_EMPLOYEE = 250;
+
+    // 生成するパスワード(password)のハッシュ
+    private static final String PASSWORD_HASH = "$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO";
+
+    private BenchmarkApplication() {
+    }
+
+    // アプリケーションを起動する(ポートは空きポートを使用し、管理ポートは起動しない)
+    // テーブルはマイグレーションで作成し、開発用の初期データは投入しない
+    // argsには追加の設定(--name=value、以下の設定と重複しないもの)を指定する
+    static ConfigurableApplicationContext start(String databaseName, String... args) {
+        return new SpringApplicationBuilder(DailyReportSystemApplication.class).run(concat(args,
+                "--server.port=0",
+                "--app.ajp.port=0",
+                "--management.server.port=-1",
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.locations=classpath:db/migration",
+                "--spring.jpa.show-sql=false",
+                "--app.report-search.index-dir=",
+                "--logging.level.root=WARN"));
+    }
+
+    // MySQLに接続してアプリケーションを起動する(テーブルはマイグレーションを使わず、毎回Hibernateで作成し直す)
+    // 接続先は -Dbenchmark.mysql.url / username / password で指定する
+    // profileを指定した場合はそのプロファイルのDB接続設定で起動する
+    // argsはstartと同じ
+    static ConfigurableApplicationContext startMySql(String profile, String... args) {
+        return new SpringApplicationBuilder(DailyReportSystemApplication.class).run(concat(args,
+                "--server.port=0",
+                "--app.ajp.port=0",
+                "--management.server.port=-1",
+                "--spring.profiles.active=" + profile,
+                "--spring.datasource.url=" + System.getProperty("benchmark.mysql.url",
+                        "jdbc:mysql://localhost:3306/daily_report_system?useSSL=false&allowPublicKeyRetrieval=true&useCursorFetch=true"),
+                "--spring.datasource.username=" + System.getProperty("benchmark.mysql.username", "repuser"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.mysql.password", "reppass"),
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--app.report-search.index-dir=",
+                "--logging.level.root=WARN"));
+    }
+
+    // 追加の設定と固定の設定をつなげた起動引数
+    private static String[] concat(String[] args, String... defaults) {
+        String[] all = Arrays.copyOf(args, args.length + defaults.length);
+        System.arraycopy(defaults, 0, all, args.length, defaults.length);
+        return all;
+    }
+
+    // 日報reportCount件(従業員1人あたりREPORTS_PER_EMPLOYEE件)のデータを生成する
+    // 乱数の種は固定のため、同じ件数であれば毎回同じデータとなる
+    static SyntheticDataGenerator generate(JdbcTemplate jdbcTemplate, int reportCount) {
+        SyntheticDataProperties properties = new SyntheticDataProperties();
+        properties.setEmployees(Math.max(1, reportCount / REPORTS_PER_EMPLOYEE));
+        properties.setAdmins(1);
+        properties.setCodePrefix("B");
+        properties.setWorkdays(REPORTS_PER_EMPLOYEE);
+        properties.setSubmissionRate(1.0);
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(jdbcTemplate, properties, PASSWORD_HASH);
+        generator.generate();
+        return generator;
+    }
+}
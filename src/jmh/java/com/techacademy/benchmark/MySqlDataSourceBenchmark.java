@@ -0,0 +1,88 @@
+package com.techacademy.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.datagen.SyntheticDataGenerator;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+import com.techacademy.service.EmployeeService;
+import com.techacademy.service.ReportPage;
+import com.techacademy.service.ReportService;
+
+// DB接続設定(既定値 / productionプロファイル)ごとの日報の一覧取得・登録の処理時間
+// MySQLが必要なため、既定では実行しない
+// 実行例: mvn -Pbenchmark test-compile exec:exec -Djmh.include=MySqlDataSourceBenchmark
+//         -Djmh.options="-f 1 -jvmArgsAppend -Dbenchmark.mysql.url=jdbc:mysql://localhost:3306/daily_report_system"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MySqlDataSourceBenchmark {
+
+    // 一覧の1ページの件数(ReportControllerと同じ)
+    private static final int PAGE_SIZE = 20;
+
+    // default: application.propertiesの設定のみ production: 本番用の接続プール・ドライバ設定
+    @Param({ "default", "production" })
+    public String profile;
+
+    @Param({ "100000" })
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ReportService reportService;
+    private Employee employee;
+    private LocalDate nextReportDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.startMySql(profile);
+        SyntheticDataGenerator generator = BenchmarkApplication.generate(context.getBean(JdbcTemplate.class), rows);
+        reportService = context.getBean(ReportService.class);
+        employee = context.getBean(EmployeeService.class).findByCode(generator.employeeCode(0));
+
+        // 登録する日報の日付(生成したデータより後の日付から1日ずつ進める)
+        nextReportDate = LocalDate.of(2100, 1, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 全従業員の日報一覧(先頭ページ)
+    @Benchmark
+    public ReportPage findFirstPage() {
+        return reportService.findPage(null, null, null, PAGE_SIZE);
+    }
+
+    // 日報の登録
+    @Benchmark
+    public ErrorKinds save() {
+        Report report = new Report();
+        report.setEmployee(employee);
+        report.setReportDate(nextReportDate);
+        report.setTitle("性能測定");
+        report.setContent("性能測定の内容");
+        nextReportDate = nextReportDate.plusDays(1);
+        return reportService.save(report);
+    }
+}
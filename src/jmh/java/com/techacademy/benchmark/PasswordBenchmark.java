@@ -0,0 +1,70 @@
+package com.techacademy.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Employee;
+import com.techacademy.service.EmployeeService;
+
+// パスワードの入力チェックとBCryptの処理時間
+// 入力チェックはBCryptを含まない経路(半角英数字エラー・桁数エラー)で測定する
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PasswordBenchmark {
+
+    private EmployeeService employeeService;
+    private BCryptPasswordEncoder passwordEncoder;
+    private String passwordHash;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(10);
+        employeeService = new EmployeeService(null, null, passwordEncoder, null, null, null, null);
+        passwordHash = passwordEncoder.encode("password1234");
+    }
+
+    // 半角英数字チェックでエラー(Patternのコンパイルと照合)
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ErrorKinds passwordCheckHalfSizeError() {
+        return employeeService.employeePasswordCheck(employee("パスワード1234"));
+    }
+
+    // 半角英数字チェックは通過し、桁数チェックでエラー
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ErrorKinds passwordCheckRangeError() {
+        return employeeService.employeePasswordCheck(employee("abc123"));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String bcryptEncode() {
+        return passwordEncoder.encode("password1234");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptMatches() {
+        return passwordEncoder.matches("password1234", passwordHash);
+    }
+
+    private Employee employee(String password) {
+        Employee employee = new Employee();
+        employee.setPassword(password);
+        return employee;
+    }
+}
@@ -0,0 +1,119 @@
+package com.techacademy.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.datagen.SyntheticDataGenerator;
+import com.techacademy.entity.Report;
+import com.techacademy.service.ReportCalendarService;
+import com.techacademy.service.ReportPage;
+import com.techacademy.service.ReportService;
+
+// 日報の一覧取得・重複チェック・更新の処理時間(日報件数ごと)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReportBenchmark {
+
+    // 一覧の1ページの件数(ReportControllerと同じ)
+    private static final int PAGE_SIZE = 20;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ReportService reportService;
+
+    private String employeeCode;
+    private LocalDate middleReportDate;
+    private Long middleId;
+    private Report validateTarget;
+    private Report updateTarget;
+    private long updateCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("report" + rows);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        SyntheticDataGenerator generator = BenchmarkApplication.generate(jdbcTemplate, rows);
+        reportService = context.getBean(ReportService.class);
+
+        // JDBCで直接登録した日報を提出カレンダーに反映する
+        context.getBean(ReportCalendarService.class).reload();
+
+        // 中ほどの従業員
+        employeeCode = generator.employeeCode(rows / BenchmarkApplication.REPORTS_PER_EMPLOYEE / 2);
+
+        // 一覧の中ほどのページの取得開始位置
+        jdbcTemplate.query("SELECT report_date, id FROM reports ORDER BY report_date DESC, id DESC LIMIT 1 OFFSET ?",
+                rs -> {
+                    middleReportDate = rs.getDate(1).toLocalDate();
+                    middleId = rs.getLong(2);
+                }, rows / 2);
+
+        // 登録済みの日付と重複する新規日報
+        Report existing = reportService.findById(1L);
+        validateTarget = new Report();
+        validateTarget.setEmployee(existing.getEmployee());
+        validateTarget.setReportDate(existing.getReportDate());
+
+        updateTarget = reportService.findById(2L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 全従業員の日報一覧(先頭ページ)
+    @Benchmark
+    public ReportPage findFirstPage() {
+        return reportService.findPage(null, null, null, PAGE_SIZE);
+    }
+
+    // 全従業員の日報一覧(中ほどのページ)
+    @Benchmark
+    public ReportPage findMiddlePage() {
+        return reportService.findPage(null, middleReportDate, middleId, PAGE_SIZE);
+    }
+
+    // 一般従業員の日報一覧(先頭ページ)
+    @Benchmark
+    public ReportPage findEmployeePage() {
+        return reportService.findPage(employeeCode, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ErrorKinds validateReport() {
+        return reportService.validateReport(validateTarget);
+    }
+
+    // タイトルを毎回変更して更新する
+    @Benchmark
+    public ErrorKinds update() {
+        Report report = new Report();
+        report.setId(updateTarget.getId());
+        report.setReportDate(updateTarget.getReportDate());
+        report.setContent(updateTarget.getContent());
+        report.setTitle("更新タイトル" + (updateCount++));
+        return reportService.update(report);
+    }
+}
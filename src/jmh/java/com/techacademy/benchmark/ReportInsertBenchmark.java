@@ -0,0 +1,113 @@
+package com.techacademy.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportRepository;
+import com.techacademy.service.EmployeeService;
+
+// 日報の一括登録(1トランザクションでBATCH件)の件数/秒
+// identity: 変更前の採番(IDENTITY、INSERTは1件ずつ実行) pooled: 採番表から一定件数ずつ確保(INSERTをバッチで実行)
+// 既定はH2で測定する。MySQLで測定する場合は -p database=mysql を指定する(接続先はMySqlDataSourceBenchmarkと同じ)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReportInsertBenchmark {
+
+    // 1トランザクションで登録する件数
+    private static final int BATCH = 100;
+
+    @Param({ "identity", "pooled" })
+    public String idGeneration;
+
+    @Param({ "h2" })
+    public String database;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ReportRepository reportRepository;
+    private Employee employee;
+    private LocalDate nextReportDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // identityの場合、マイグレーションのテーブルはIDENTITYに対応しないためHibernateでテーブルを作成する
+        boolean identity = "identity".equals(idGeneration);
+        String mappingResources = "--spring.jpa.mapping-resources=META-INF/identity-orm.xml";
+        if ("mysql".equals(database)) {
+            context = identity ? BenchmarkApplication.startMySql("production", mappingResources)
+                    : BenchmarkApplication.startMySql("production");
+        } else {
+            context = identity ? BenchmarkApplication.start("insert" + idGeneration, mappingResources,
+                    "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=create")
+                    : BenchmarkApplication.start("insert" + idGeneration);
+        }
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        reportRepository = context.getBean(ReportRepository.class);
+
+        // 日報を登録する従業員
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO employees (code, name, role, password, delete_flg, created_at, updated_at) "
+                + "VALUES ('B00000', '性能測定', 'GENERAL', 'password', 0, ?, ?)", now, now);
+        employee = context.getBean(EmployeeService.class).findByCode("B00000");
+        nextReportDate = LocalDate.of(2100, 1, 1);
+    }
+
+    // 測定ごとに登録した日報を削除する
+    @TearDown(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM reports");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 日報BATCH件の登録(結果は1件あたり)
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Report> saveAll() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Report> reports = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            Report report = new Report();
+            report.setEmployee(employee);
+            report.setReportDate(nextReportDate);
+            report.setTitle("性能測定");
+            report.setContent("性能測定の内容");
+            report.setCreatedAt(now);
+            report.setUpdatedAt(now);
+            reports.add(report);
+            nextReportDate = nextReportDate.plusDays(1);
+        }
+        return transactionTemplate.execute(status -> reportRepository.saveAll(reports));
+    }
+}
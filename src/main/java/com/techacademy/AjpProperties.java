@@ -0,0 +1,32 @@
+package com.techacademy;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+// AJPコネクタの設定
+// 未指定の項目はTomcatの既定値と同じ
+@Data
+@ConfigurationProperties(prefix = "app.ajp")
+public class AjpProperties {
+
+    // 待受ポート
+    private int port = 8009;
+
+    // リクエスト処理スレッドの上限(仮想スレッド利用時は使用しない)
+    private int maxThreads = 200;
+
+    // 同時接続数が上限に達した場合にOSで待機させる接続要求数
+    private int acceptCount = 100;
+
+    // 同時接続数の上限
+    private int maxConnections = 8192;
+
+    // 次のリクエストを待つ時間(未指定の場合は無期限)
+    private Duration keepAliveTimeout;
+
+    // AJPパケットの最大サイズ(バイト、プロキシ側の設定と合わせる)
+    private int packetSize = 8192;
+}
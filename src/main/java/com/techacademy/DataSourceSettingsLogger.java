@@ -0,0 +1,81 @@
+package com.techacademy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// 起動時に接続プールの実効値をログに出力する
+// MySQLの場合はサーバー変数も出力し、接続プールの設定と合わない場合は警告する
+@Component
+public class DataSourceSettingsLogger {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceSettingsLogger.class);
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+
+    public DataSourceSettingsLogger(ObjectProvider<HikariDataSource> dataSources) {
+        this.dataSources = dataSources;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logSettings() {
+        dataSources.orderedStream().forEach(this::logSettings);
+    }
+
+    private void logSettings(HikariDataSource dataSource) {
+        log.info("Connection pool {}: url={}, maximumPoolSize={}, minimumIdle={}, connectionTimeout={}ms, "
+                + "validationTimeout={}ms, idleTimeout={}ms, maxLifetime={}ms, keepaliveTime={}ms, "
+                + "leakDetectionThreshold={}ms, dataSourceProperties={}",
+                dataSource.getPoolName(), dataSource.getJdbcUrl(), dataSource.getMaximumPoolSize(),
+                dataSource.getMinimumIdle(), dataSource.getConnectionTimeout(), dataSource.getValidationTimeout(),
+                dataSource.getIdleTimeout(), dataSource.getMaxLifetime(), dataSource.getKeepaliveTime(),
+                dataSource.getLeakDetectionThreshold(), dataSource.getDataSourceProperties());
+
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            log.info("Connection pool {}: {} {} (driver {} {})", dataSource.getPoolName(), product,
+                    connection.getMetaData().getDatabaseProductVersion(), connection.getMetaData().getDriverName(),
+                    connection.getMetaData().getDriverVersion());
+            if (!"MySQL".equals(product)) {
+                return;
+            }
+        } catch (SQLException e) {
+            log.warn("Connection pool {}: could not read database settings", dataSource.getPoolName(), e);
+            return;
+        }
+        checkMySqlVariables(dataSource);
+    }
+
+    // 接続数の上限・アイドル接続の切断時間・プリペアドステートメント数の上限
+    private void checkMySqlVariables(HikariDataSource dataSource) {
+        Map<String, Long> variables = new HashMap<>();
+        new JdbcTemplate(dataSource).query("SHOW GLOBAL VARIABLES WHERE Variable_name IN "
+                + "('max_connections', 'wait_timeout', 'max_prepared_stmt_count')",
+                rs -> {
+                    variables.put(rs.getString(1), rs.getLong(2));
+                });
+        log.info("Connection pool {}: MySQL variables {}", dataSource.getPoolName(), variables);
+
+        Long maxConnections = variables.get("max_connections");
+        if (maxConnections != null && dataSource.getMaximumPoolSize() > maxConnections) {
+            log.warn("Connection pool {}: maximumPoolSize {} exceeds max_connections {}", dataSource.getPoolName(),
+                    dataSource.getMaximumPoolSize(), maxConnections);
+        }
+        Long waitTimeout = variables.get("wait_timeout");
+        if (waitTimeout != null && dataSource.getMaxLifetime() >= waitTimeout * 1000) {
+            log.warn("Connection pool {}: maxLifetime {}ms is not shorter than wait_timeout {}s",
+                    dataSource.getPoolName(), dataSource.getMaxLifetime(), waitTimeout);
+        }
+    }
+}
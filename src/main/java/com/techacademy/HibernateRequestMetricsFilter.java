@@ -0,0 +1,48 @@
+package com.techacademy;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// リクエスト単位のHibernate統計(クエリ・エンティティ読込・SQL件数)を記録する
+// 画面表示(Thymeleaf)中の遅延読込も含めて集計する
+@Component
+public class HibernateRequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public HibernateRequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HibernateRequestStatistics.Counts counts = HibernateRequestStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            HibernateRequestStatistics.end();
+            // uriタグはURLパターン(例: /reports/{id}/)とし、IDごとに計測値を分けない
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            record("hibernate.request.queries", uri, counts.getQueries());
+            record("hibernate.request.entity.loads", uri, counts.getEntityLoads());
+            record("hibernate.request.entity.fetches", uri, counts.getEntityFetches());
+            record("hibernate.request.statements", uri, counts.getStatements());
+        }
+    }
+
+    private void record(String name, String uri, long value) {
+        DistributionSummary.builder(name).tag("uri", uri).register(meterRegistry).record(value);
+    }
+}
@@ -0,0 +1,78 @@
+package com.techacademy;
+
+// リクエスト(スレッド)単位のHibernate統計
+// 件数はHibernateRequestStatisticsConfigurationで登録したStatementInspector・イベントリスナーから加算する
+public final class HibernateRequestStatistics {
+
+    private static final ThreadLocal<Counts> COUNTS = new ThreadLocal<>();
+
+    private HibernateRequestStatistics() {
+    }
+
+    // リクエスト単位の集計開始
+    public static Counts begin() {
+        Counts counts = new Counts();
+        COUNTS.set(counts);
+        return counts;
+    }
+
+    // リクエスト単位の集計終了
+    public static void end() {
+        COUNTS.remove();
+    }
+
+    // SQL文の発行
+    static void statementPrepared(String sql) {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.statements++;
+            if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                counts.queries++;
+            }
+        }
+    }
+
+    // エンティティの読込
+    static void entityLoaded() {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+    }
+
+    // 遅延読込(プロキシ・コレクションの初期化)
+    static void entityFetched() {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.entityFetches++;
+        }
+    }
+
+    // 1リクエスト分の件数
+    public static class Counts {
+        private long queries;
+        private long entityLoads;
+        private long entityFetches;
+        private long statements;
+
+        // 実行した検索(SELECT文、関連の取得を含む)
+        public long getQueries() {
+            return queries;
+        }
+
+        // 読み込んだエンティティ
+        public long getEntityLoads() {
+            return entityLoads;
+        }
+
+        // 関連の取得のために追加で読み込んだエンティティ・コレクション
+        public long getEntityFetches() {
+            return entityFetches;
+        }
+
+        // 発行したSQL文(関連の取得・更新を含む)
+        public long getStatements() {
+            return statements;
+        }
+    }
+}
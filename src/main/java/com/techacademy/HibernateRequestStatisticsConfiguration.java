@@ -0,0 +1,51 @@
+package com.techacademy;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// リクエスト単位のHibernate統計(HibernateRequestStatistics)の集計元を登録する
+// Hibernate内部の統計実装には依存せず、公開されている拡張点(StatementInspector・イベントリスナー)を使う
+@Configuration
+public class HibernateRequestStatisticsConfiguration {
+
+    // 発行するSQL文を数える(SQLは変更しない)
+    @Bean
+    public HibernatePropertiesCustomizer requestStatementInspector() {
+        StatementInspector inspector = sql -> {
+            HibernateRequestStatistics.statementPrepared(sql);
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    // エンティティの読込・遅延読込を数える(標準のリスナーの後に実行する)
+    @Bean
+    public SmartInitializingSingleton requestEventListeners(EntityManagerFactory entityManagerFactory) {
+        return () -> {
+            EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry().getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_LOAD,
+                    (PostLoadEventListener) event -> HibernateRequestStatistics.entityLoaded());
+            // プロキシの初期化
+            registry.appendListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> {
+                if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+                    HibernateRequestStatistics.entityFetched();
+                }
+            });
+            registry.appendListeners(EventType.INIT_COLLECTION,
+                    (InitializeCollectionEventListener) event -> HibernateRequestStatistics.entityFetched());
+        };
+    }
+}
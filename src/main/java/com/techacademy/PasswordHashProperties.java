@@ -0,0 +1,25 @@
+package com.techacademy;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+// パスワードハッシュ(BCrypt)の設定
+@Data
+@ConfigurationProperties(prefix = "app.password-hash")
+public class PasswordHashProperties {
+
+    // BCryptのコスト(強度)
+    private int strength = 10;
+
+    // ハッシュ計算専用スレッド数
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    // 実行待ちキューの上限(超えた場合は即座にログイン失敗とする)
+    private int queueCapacity = 100;
+
+    // 実行待ちを含めた処理時間の上限
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,14 @@
+package com.techacademy;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+// パスワードハッシュの計算が混み合っている(実行待ちの上限超過・時間切れ)
+// ログイン時は認証エラー、従業員の登録・更新時は入力画面のエラーとして扱う
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,46 @@
+package com.techacademy;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+// 更新したユーザーの参照を一定時間プライマリに固定する(自分の更新がレプリカに反映される前に参照しないようにする)
+// 最終更新時刻はセッションに保持する
+public class ReplicaPinningFilter extends OncePerRequestFilter {
+
+    private static final String LAST_WRITE_ATTRIBUTE = ReplicaPinningFilter.class.getName() + ".lastWrite";
+
+    private final long pinMillis;
+
+    public ReplicaPinningFilter(long pinMillis) {
+        this.pinMillis = pinMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        Long lastWrite = session != null ? (Long) session.getAttribute(LAST_WRITE_ATTRIBUTE) : null;
+        boolean pinned = lastWrite != null && System.currentTimeMillis() - lastWrite < pinMillis;
+
+        // 更新時はリダイレクト先の参照にも間に合うよう、その時点でセッションに記録する
+        // ログイン時の更新(パスワードの再ハッシュ化)はセッションの作成前のため、応答前であればセッションを作成する
+        ReplicaRoutingContext.begin(pinned, () -> {
+            HttpSession current = request.getSession(!response.isCommitted());
+            if (current != null) {
+                current.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+            }
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.end();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.techacademy;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+// 参照用DB(レプリカ)の接続設定
+// urlを指定した場合のみ、参照専用トランザクションをレプリカに振り分ける
+@Data
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+
+    // 接続URL(未指定の場合はすべてプライマリで処理する)
+    private String url;
+
+    // ユーザー名・パスワード(未指定の場合はプライマリと同じ)
+    private String username;
+    private String password;
+
+    // 更新後にそのユーザーの参照をプライマリに固定する時間(レプリカの遅延より長くする)
+    private Duration pinDuration = Duration.ofSeconds(5);
+}
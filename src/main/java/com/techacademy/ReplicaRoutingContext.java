@@ -0,0 +1,64 @@
+package com.techacademy;
+
+import java.util.function.Supplier;
+
+// リクエスト単位の振り分け状態
+// 更新直後のユーザーのリクエスト、または同じリクエスト内で更新した後の参照はプライマリに固定する
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<ReplicaRoutingContext> CURRENT = new ThreadLocal<>();
+
+    // プライマリで参照する処理の実行中かどうか(リクエストの固定とは別に、処理単位で指定する)
+    private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+
+    private boolean pinned;
+    private final Runnable onWrite;
+
+    private ReplicaRoutingContext(boolean pinned, Runnable onWrite) {
+        this.pinned = pinned;
+        this.onWrite = onWrite;
+    }
+
+    // リクエスト開始時に設定する(onWriteは最初の更新時に呼び出される)
+    public static void begin(boolean pinned, Runnable onWrite) {
+        CURRENT.set(new ReplicaRoutingContext(pinned, onWrite));
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    // プライマリに固定されているかどうか(リクエスト外の場合は固定しない)
+    public static boolean isPinned() {
+        ReplicaRoutingContext context = CURRENT.get();
+        return context != null && context.pinned;
+    }
+
+    // 処理中の参照をプライマリで行う(セッションは固定しない)
+    // キャッシュに格納する値など、レプリカの遅延で古い値を読んではいけない参照に使う
+    // 接続はトランザクション内の最初のSQLで取得するため、トランザクションの開始後・最初の参照の前に呼び出すこと
+    public static <T> T onPrimary(Supplier<T> task) {
+        Boolean previous = PRIMARY_READ.get();
+        PRIMARY_READ.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_READ.remove();
+            }
+        }
+    }
+
+    static boolean isPrimaryRead() {
+        return PRIMARY_READ.get() != null;
+    }
+
+    // 更新トランザクションの開始時に呼び出す
+    static void markWrite() {
+        ReplicaRoutingContext context = CURRENT.get();
+        if (context != null && !context.pinned) {
+            context.pinned = true;
+            context.onWrite.run();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.techacademy;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// 参照専用トランザクション(@Transactional(readOnly = true))をレプリカに、それ以外をプライマリに振り分ける
+// トランザクションの属性が確定してから接続を取得するよう、LazyConnectionDataSourceProxyで包んで使う
+// 振り分け件数は datasource.routing (target: primary/replica, reason: 振り分け理由)
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final Counter readOnly;
+    private final Counter pinned;
+    private final Counter primaryRead;
+    private final Counter write;
+    private final Counter nonTransactional;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.readOnly = counter(meterRegistry, Target.REPLICA, "read-only");
+        this.pinned = counter(meterRegistry, Target.PRIMARY, "pinned");
+        this.primaryRead = counter(meterRegistry, Target.PRIMARY, "primary-read");
+        this.write = counter(meterRegistry, Target.PRIMARY, "write");
+        this.nonTransactional = counter(meterRegistry, Target.PRIMARY, "non-transactional");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            nonTransactional.increment();
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReplicaRoutingContext.markWrite();
+            write.increment();
+            return Target.PRIMARY;
+        }
+        if (ReplicaRoutingContext.isPinned()) {
+            pinned.increment();
+            return Target.PRIMARY;
+        }
+        if (ReplicaRoutingContext.isPrimaryRead()) {
+            primaryRead.increment();
+            return Target.PRIMARY;
+        }
+        readOnly.increment();
+        return Target.REPLICA;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Target target, String reason) {
+        return Counter.builder("datasource.routing")
+                .tag("target", target.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -1,18 +1,26 @@
 package com.techacademy;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
+@EnableConfigurationProperties(PasswordHashProperties.class)
 public class SecurityConfig {
     /** 認証・認可設定 */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ManagementPortRequestMatcher managementPort)
+            throws Exception {
         http.formLogin(login -> login.loginProcessingUrl("/login") // 従業員番号・パスワードの送信先
                 .loginPage("/login") // ログイン画面
                 .defaultSuccessUrl("/") // ログイン成功後のリダイレクト先
@@ -21,14 +29,22 @@ public class SecurityConfig {
         ).logout(logout -> logout.logoutSuccessUrl("/login") // ログアウト後のリダイレクト先
         ).authorizeHttpRequests(
                 auth -> auth.requestMatchers(PathRequest.toStaticResources().atCommonLocations()).permitAll() // css等は未ログインでアクセス可
-                        .requestMatchers("/employees/**").hasAnyAuthority("ADMIN").anyRequest().authenticated()); // その他はログイン必要
+                        .requestMatchers("/employees/**").hasAnyAuthority("ADMIN")
+                        .requestMatchers("/reports/import/**", "/reports/export/**", "/reports/search/rebuild",
+                                "/reports/stats/**", "/reports/calendar/**")
+                        .hasAnyAuthority("ADMIN") // 日報一括取込・CSV出力・検索索引の再作成・提出状況・提出カレンダーは管理者のみ
+                        .requestMatchers(new AndRequestMatcher(managementPort,
+                                new OrRequestMatcher(antMatcher("/actuator/health"), antMatcher("/actuator/prometheus"))))
+                        .permitAll() // 監視用(管理ポートのみログイン不要、業務用ポートでは下の管理者のみ)
+                        .requestMatchers("/actuator/**").hasAnyAuthority("ADMIN") // 稼働状況・統計は管理者のみ
+                        .anyRequest().authenticated()); // その他はログイン必要
 
         return http.build();
     }
 
-    /** ハッシュ化したパスワードの比較に使用する */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /** ハッシュ化したパスワードの比較に使用する(専用スレッドで実行) */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(PasswordHashProperties properties, MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(properties, meterRegistry);
     }
 }
\ No newline at end of file
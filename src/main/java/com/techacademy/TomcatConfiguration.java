@@ -2,13 +2,29 @@ package com.techacademy; // ご自身の環境に合わせてください
 
 import org.apache.catalina.connector.Connector;
 import org.apache.coyote.ajp.AjpNio2Protocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
+// リクエスト処理スレッドの方式は spring.threads.virtual.enabled で切り替える
+// true(Java 21以降)の場合は仮想スレッド、falseの場合は上限付きのスレッドプールで処理する
+// HTTPコネクタはSpring Bootが切り替えるため、ここではAJPコネクタにのみ同じ方式を適用する
 @Configuration
+@EnableConfigurationProperties(AjpProperties.class)
 public class TomcatConfiguration implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
 
+    private final Environment environment;
+    private final AjpProperties ajpProperties;
+
+    public TomcatConfiguration(Environment environment, AjpProperties ajpProperties) {
+        this.environment = environment;
+        this.ajpProperties = ajpProperties;
+    }
+
     @Override
     public void customize(TomcatServletWebServerFactory factory) {
         // Tomcatとの通信手段にAJPを追加
@@ -19,14 +35,28 @@ public class TomcatConfiguration implements WebServerFactoryCustomizer<TomcatSer
         // AJPの利用を宣言
         Connector connector = new Connector("org.apache.coyote.ajp.AjpNio2Protocol");
 
-        // AJPの通信で8009番ポートを使うための指定
-        connector.setPort(8009);
+        // AJPの通信で使うポートの指定(既定は8009番)
+        connector.setPort(ajpProperties.getPort());
 
         // secretという保護機能を利用しないようにする設定
         AjpNio2Protocol protocol = (AjpNio2Protocol) connector.getProtocolHandler();
         protocol.setSecretRequired(false);
 
+        // スレッド数・接続数・パケットサイズの指定
+        protocol.setMaxThreads(ajpProperties.getMaxThreads());
+        protocol.setAcceptCount(ajpProperties.getAcceptCount());
+        protocol.setMaxConnections(ajpProperties.getMaxConnections());
+        protocol.setPacketSize(ajpProperties.getPacketSize());
+        if (ajpProperties.getKeepAliveTimeout() != null) {
+            protocol.setKeepAliveTimeout((int) ajpProperties.getKeepAliveTimeout().toMillis());
+        }
+
+        // 仮想スレッドが有効な場合はAJPのリクエストも仮想スレッドで処理する
+        if (Threading.VIRTUAL.isActive(environment)) {
+            protocol.setExecutor(new VirtualThreadExecutor("tomcat-ajp-handler-"));
+        }
+
         return connector;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.techacademy;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.RequestGroupInfo;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Tomcatのコネクタ(HTTP・AJP)ごとの稼働状況の計測値
+// connectorタグにコネクタ名(例: http-nio-8080, ajp-nio2-8009)を設定する
+// スレッド数・待ち件数は仮想スレッド利用時は計測できないためNaNとなる
+@Component
+public class TomcatConnectorMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public TomcatConnectorMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Webサーバー起動後、全コネクタの計測値を登録する
+    @EventListener
+    public void bindConnectors(ServletWebServerInitializedEvent event) {
+        if (!(event.getWebServer() instanceof TomcatWebServer webServer)) {
+            return;
+        }
+        for (Connector connector : webServer.getTomcat().getService().findConnectors()) {
+            if (connector.getProtocolHandler() instanceof AbstractProtocol<?> protocol) {
+                bind(protocol);
+            }
+        }
+    }
+
+    private void bind(AbstractProtocol<?> protocol) {
+        String name = protocol.getName().replace("\"", "");
+
+        // リクエスト処理スレッド(実行中・待機中)と処理待ちの件数
+        Gauge.builder("tomcat.connector.threads.busy", protocol, p -> threadPool(p, ThreadPoolExecutor::getActiveCount))
+                .tag("connector", name).register(meterRegistry);
+        Gauge.builder("tomcat.connector.threads.idle", protocol,
+                p -> threadPool(p, e -> e.getPoolSize() - e.getActiveCount()))
+                .tag("connector", name).register(meterRegistry);
+        Gauge.builder("tomcat.connector.threads.queue", protocol, p -> threadPool(p, e -> e.getQueue().size()))
+                .tag("connector", name).register(meterRegistry);
+
+        // 接続数
+        Gauge.builder("tomcat.connector.connections", protocol, AbstractProtocol::getConnectionCount)
+                .tag("connector", name).register(meterRegistry);
+
+        // リクエスト件数・処理時間(累計)と最大処理時間
+        FunctionTimer.builder("tomcat.connector.requests", protocol,
+                p -> requestGroup(p) == null ? 0 : requestGroup(p).getRequestCount(),
+                p -> requestGroup(p) == null ? 0 : requestGroup(p).getProcessingTime(), TimeUnit.MILLISECONDS)
+                .tag("connector", name).register(meterRegistry);
+        Gauge.builder("tomcat.connector.requests.max", protocol,
+                p -> requestGroup(p) == null ? Double.NaN : requestGroup(p).getMaxTime())
+                .tag("connector", name).baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    // スレッドプールの計測値(スレッドプール以外で処理している場合はNaN)
+    private double threadPool(AbstractProtocol<?> protocol, ThreadPoolValue value) {
+        Executor executor = protocol.getExecutor();
+        if (executor instanceof ThreadPoolExecutor threadPool) {
+            return value.get(threadPool);
+        }
+        return Double.NaN;
+    }
+
+    private RequestGroupInfo requestGroup(AbstractProtocol<?> protocol) {
+        if (protocol.getHandler() != null && protocol.getHandler().getGlobal() instanceof RequestGroupInfo global) {
+            return global;
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface ThreadPoolValue {
+        double get(ThreadPoolExecutor executor);
+    }
+}
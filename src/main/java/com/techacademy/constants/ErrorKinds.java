@@ -24,6 +24,10 @@ public enum ErrorKinds {
     ONE_CHECK_ERROR,
     // 600文字以下チェック
     SIX_CHECK_ERROR,
+    // 他のユーザーによる更新(楽観ロック)エラー
+    OPTIMISTIC_LOCK_ERROR,
+    // パスワードハッシュの計算待ち(混雑)エラー
+    PASSWORD_BUSY_ERROR,
     // チェックOK
     CHECK_OK,
     // 正常終了
@@ -42,6 +42,12 @@ public class ErrorMessage {
             // 同一日付チェック用エラーメッセージ
             put(ErrorKinds.SIX_CHECK_ERROR,
                     new ArrayList<String>(Arrays.asList("600checkError", "600文字以下で入力してください")));
+            // 楽観ロック用エラーメッセージ
+            put(ErrorKinds.OPTIMISTIC_LOCK_ERROR, new ArrayList<String>(
+                    Arrays.asList("lockError", "他のユーザーが更新しました。画面を開き直してから再度更新してください")));
+            // パスワードハッシュ計算の混雑用エラーメッセージ
+            put(ErrorKinds.PASSWORD_BUSY_ERROR, new ArrayList<String>(
+                    Arrays.asList("passwordError", "混み合っています。しばらくしてから再度登録してください")));
 
         }
     };
@@ -2,6 +2,8 @@ package com.techacademy.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,11 +14,15 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.constants.ErrorMessage;
 import com.techacademy.entity.Employee;
+import com.techacademy.repository.EmployeeListRow;
 import com.techacademy.service.EmployeeService;
+import com.techacademy.service.EmployeeService.DeleteResult;
 import com.techacademy.service.UserDetail;
 
 @Controller
@@ -29,12 +35,21 @@ public class EmployeeController {
         this.employeeService = employeeService;
     }
 
+    // 従業員一覧画面の1ページあたりの表示件数
+    private static final int PAGE_SIZE = 20;
+
     // 従業員一覧画面
     @GetMapping
-    public String list(Model model) {
+    public String list(Model model, @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "code") String sort, @RequestParam(defaultValue = "") String name) {
+
+        Page<EmployeeListRow> employeePage = employeeService.findPage(name, sort, page, PAGE_SIZE);
 
-        model.addAttribute("listSize", employeeService.findAll().size());
-        model.addAttribute("employeeList", employeeService.findAll());
+        model.addAttribute("listSize", employeePage.getTotalElements());
+        model.addAttribute("employeeList", employeePage.getContent());
+        model.addAttribute("employeePage", employeePage);
+        model.addAttribute("sort", sort);
+        model.addAttribute("name", name);
 
         return "employees/list";
     }
@@ -75,6 +90,10 @@ public class EmployeeController {
             }
         } catch (DataIntegrityViolationException e) {
             return "employees/update";
+        } catch (ObjectOptimisticLockingFailureException e) {
+            model.addAttribute(ErrorMessage.getErrorName(ErrorKinds.OPTIMISTIC_LOCK_ERROR),
+                    ErrorMessage.getErrorValue(ErrorKinds.OPTIMISTIC_LOCK_ERROR));
+            return "employees/update";
         }
         // ⑤ 正常終了なら従業員一覧へリダイレクト
         return "redirect:/employees";
@@ -120,10 +139,13 @@ public class EmployeeController {
     }
 
     // 従業員削除処理
+    // 削除後の一覧画面には、あわせて論理削除した日報の件数を表示する
     @PostMapping(value = "/{code}/delete")
-    public String delete(@PathVariable String code, @AuthenticationPrincipal UserDetail userDetail, Model model) {
+    public String delete(@PathVariable String code, @AuthenticationPrincipal UserDetail userDetail, Model model,
+            RedirectAttributes redirectAttributes) {
 
-        ErrorKinds result = employeeService.delete(code, userDetail);
+        DeleteResult deleteResult = employeeService.delete(code, userDetail);
+        ErrorKinds result = deleteResult.errorKinds();
 
         if (ErrorMessage.contains(result)) {
             model.addAttribute(ErrorMessage.getErrorName(result), ErrorMessage.getErrorValue(result));
@@ -131,6 +153,7 @@ public class EmployeeController {
             return detail(code, model);
         }
 
+        redirectAttributes.addFlashAttribute("deletedReportCount", deleteResult.deletedReportCount());
         return "redirect:/employees";
     }
 
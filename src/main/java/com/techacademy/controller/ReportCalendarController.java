@@ -0,0 +1,51 @@
+package com.techacademy.controller;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.techacademy.service.ReportCalendarService;
+
+@Controller
+@RequestMapping("reports/calendar")
+public class ReportCalendarController {
+
+    // 1ページあたりの表示人数
+    private static final int PAGE_SIZE = 100;
+
+    private final ReportCalendarService reportCalendarService;
+
+    public ReportCalendarController(ReportCalendarService reportCalendarService) {
+        this.reportCalendarService = reportCalendarService;
+    }
+
+    // 提出カレンダー画面(月の指定がない場合は当月)
+    @GetMapping
+    public String calendar(@RequestParam(required = false) YearMonth month,
+            @RequestParam(defaultValue = "0") int page, Model model) {
+        YearMonth target = month != null ? month : YearMonth.now();
+
+        model.addAttribute("month", target);
+        model.addAttribute("days", target.atDay(1).datesUntil(target.plusMonths(1).atDay(1)).toList());
+        model.addAttribute("today", LocalDate.now());
+        model.addAttribute("calendarPage", reportCalendarService.findMonth(target, page, PAGE_SIZE));
+        return "reports/calendar";
+    }
+
+    // 未提出者一覧画面(日付の指定がない場合は当日)
+    @GetMapping(value = "/missing")
+    public String missing(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            Model model) {
+        LocalDate target = date != null ? date : LocalDate.now();
+
+        model.addAttribute("date", target);
+        model.addAttribute("employeeList", reportCalendarService.findMissing(target));
+        return "reports/missing";
+    }
+}
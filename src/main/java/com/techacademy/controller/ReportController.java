@@ -1,11 +1,10 @@
 package com.techacademy.controller;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -18,11 +17,13 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.constants.ErrorMessage;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Report;
+import com.techacademy.service.ReportPage;
 import com.techacademy.service.ReportService;
 import com.techacademy.service.UserDetail;
 
@@ -36,30 +37,29 @@ public class ReportController {
         this.reportService = reportService;
     }
 
+    // 日報一覧画面の1ページあたりの表示件数
+    private static final int PAGE_SIZE = 20;
+
     // 日報一覧画面
     @GetMapping
-    public String list(Model model, @AuthenticationPrincipal UserDetail userDetail) {
-        // すべてのレポートを取得
-        List<Report> allReports = reportService.findAll();
-        List<Report> filteredReports;
+    public String list(Model model, @AuthenticationPrincipal UserDetail userDetail,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate reportDate,
+            @RequestParam(required = false) Long id) {
         // ユーザーのロールを取得
         String role = userDetail.getAuthorities().stream()
                                 .map(GrantedAuthority::getAuthority)
                                 .findFirst()
                                 .orElse("");
 
-        if ("ADMIN".equals(role)) {
-            // 管理者の場合はすべてのレポートを表示
-            filteredReports = allReports;
-        } else {
-            // 一般ユーザーの場合は、自分のレポートのみを表示
-            String username = userDetail.getEmployee().getName();
-            filteredReports = allReports.stream()
-                                        .filter(report -> report.getEmployee().getName().equals(username))
-                                        .collect(Collectors.toList());
-        }
-        model.addAttribute("listSize", filteredReports.size());
-        model.addAttribute("reportList", filteredReports);
+        // 管理者の場合はすべてのレポート、一般ユーザーの場合は自分のレポートのみを表示
+        String employeeCode = "ADMIN".equals(role) ? null : userDetail.getEmployee().getCode();
+        ReportPage page = reportService.findPage(employeeCode, reportDate, id, PAGE_SIZE);
+
+        model.addAttribute("listSize", page.totalCount());
+        model.addAttribute("reportList", page.reportList());
+        model.addAttribute("nextReportDate", page.nextReportDate());
+        model.addAttribute("nextId", page.nextId());
+        model.addAttribute("isFirstPage", reportDate == null || id == null);
         return "reports/list";
     }
 
@@ -93,7 +93,8 @@ public class ReportController {
             return "reports/new";
         }
 
-        ErrorKinds error = reportService.validateReport(report);
+        // 同一日付の日報がある場合は登録時にエラーとなる
+        ErrorKinds error = reportService.save(report);
         if (error == ErrorKinds.DATECHECK_ERROR) {
             model.addAttribute("employee", employee);
             model.addAttribute("reportDate", reportDate); // エラー時もセット
@@ -103,8 +104,6 @@ public class ReportController {
             return "reports/new";
         }
 
-        reportService.save(report);
-
         return "redirect:/reports";
     }
 
@@ -141,28 +140,32 @@ public class ReportController {
     }
 
     // 日報更新処理
+    // 既存日報の読み込みは更新処理内の1回のみとし、画面の再表示時のみ従業員を読み込む
     @PostMapping(value = "/{id}/update")
     public String update(@PathVariable Long id, @Validated Report report, BindingResult res, Model model) {
-        Report existingReport = reportService.findById(id);
-
-        // report の employee のセット
-        report.setEmployee(existingReport.getEmployee());
+        report.setId(id);
 
         // 入力チェック
         if (res.hasErrors()) {
-            model.addAttribute("employee", existingReport.getEmployee());
-            return "reports/update";
+            return updateForm(id, model);
         }
 
         ErrorKinds error = reportService.update(report);
-        if (error == ErrorKinds.DATECHECK_ERROR) {
-            model.addAttribute("employee", existingReport.getEmployee());
+        if (error == ErrorKinds.DATECHECK_ERROR || error == ErrorKinds.OPTIMISTIC_LOCK_ERROR) {
             model.addAttribute("reportDate", report.getReportDate());
-            model.addAttribute(ErrorMessage.getErrorName(ErrorKinds.DATECHECK_ERROR),
-                    ErrorMessage.getErrorValue(ErrorKinds.DATECHECK_ERROR));
-            return "reports/update";
+            model.addAttribute(ErrorMessage.getErrorName(error), ErrorMessage.getErrorValue(error));
+            return updateForm(id, model);
         }
 
         return "redirect:/reports";
     }
+
+    // 日報更新画面の再表示(入力内容はそのまま、氏名表示用の従業員のみ読み込む)
+    private String updateForm(Long id, Model model) {
+        Report existingReport = reportService.findById(id);
+        model.addAttribute("employee",
+                existingReport != null && existingReport.getEmployee() != null ? existingReport.getEmployee()
+                        : new Employee());
+        return "reports/update";
+    }
 }
@@ -0,0 +1,44 @@
+package com.techacademy.controller;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.techacademy.service.ReportExportService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@Controller
+@RequestMapping("reports/export")
+public class ReportExportController {
+
+    private final ReportExportService reportExportService;
+
+    public ReportExportController(ReportExportService reportExportService) {
+        this.reportExportService = reportExportService;
+    }
+
+    // 日報CSV出力処理(レスポンスに直接書き出す)
+    @GetMapping
+    public void export(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate toDate,
+            @RequestParam(required = false) String employeeCode, HttpServletResponse response) throws IOException {
+
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reports.csv\"");
+
+        Writer writer = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        reportExportService.exportCsv(fromDate, toDate,
+                employeeCode == null || employeeCode.isBlank() ? null : employeeCode.trim(), writer);
+        writer.flush();
+    }
+}
@@ -0,0 +1,65 @@
+package com.techacademy.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.techacademy.service.ReportImportService;
+import com.techacademy.service.ReportImportService.ImportResult;
+
+@Controller
+@RequestMapping("reports/import")
+public class ReportImportController {
+
+    private final ReportImportService reportImportService;
+
+    public ReportImportController(ReportImportService reportImportService) {
+        this.reportImportService = reportImportService;
+    }
+
+    // 日報CSV取込画面
+    @GetMapping
+    public String create() {
+        return "reports/import";
+    }
+
+    // 日報CSV取込処理
+    @PostMapping
+    public String importCsv(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        if (file.isEmpty()) {
+            model.addAttribute("fileError", "ファイルを選択してください");
+            return create();
+        }
+
+        ImportResult result = reportImportService.importCsv(file.getInputStream());
+        model.addAttribute("result", result);
+        return create();
+    }
+
+    // 取込エラーファイルのダウンロード
+    @GetMapping(value = "/{errorFileId}/errors")
+    public ResponseEntity<Resource> errors(@PathVariable String errorFileId) {
+        Path errorFile = reportImportService.findErrorFile(errorFileId);
+        if (errorFile == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-errors.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(new FileSystemResource(errorFile));
+    }
+}
@@ -0,0 +1,59 @@
+package com.techacademy.controller;
+
+import java.io.IOException;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.techacademy.service.ReportSearchService;
+import com.techacademy.service.ReportSearchService.SearchResult;
+import com.techacademy.service.UserDetail;
+
+@Controller
+@RequestMapping("reports/search")
+public class ReportSearchController {
+
+    // 検索結果の1ページあたりの表示件数
+    private static final int PAGE_SIZE = 20;
+
+    private final ReportSearchService reportSearchService;
+
+    public ReportSearchController(ReportSearchService reportSearchService) {
+        this.reportSearchService = reportSearchService;
+    }
+
+    // 日報検索画面
+    @GetMapping
+    public String search(@RequestParam(defaultValue = "") String q, @RequestParam(defaultValue = "0") int page,
+            @AuthenticationPrincipal UserDetail userDetail, Model model) throws IOException {
+        // ユーザーのロールを取得
+        String role = userDetail.getAuthorities().stream()
+                                .map(GrantedAuthority::getAuthority)
+                                .findFirst()
+                                .orElse("");
+
+        // 管理者の場合はすべてのレポート、一般ユーザーの場合は自分のレポートのみを検索
+        String employeeCode = "ADMIN".equals(role) ? null : userDetail.getEmployee().getCode();
+        SearchResult result = reportSearchService.search(q, employeeCode, page, PAGE_SIZE);
+
+        model.addAttribute("q", q);
+        model.addAttribute("result", result);
+        return "reports/search";
+    }
+
+    // 検索索引の再作成(管理者のみ)
+    @PostMapping(value = "/rebuild")
+    public String rebuild(Model model) throws IOException {
+        long count = reportSearchService.rebuild();
+        model.addAttribute("rebuildCount", count);
+        model.addAttribute("q", "");
+        model.addAttribute("result", reportSearchService.search("", null, 0, PAGE_SIZE));
+        return "reports/search";
+    }
+}
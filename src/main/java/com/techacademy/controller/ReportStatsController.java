@@ -0,0 +1,52 @@
+package com.techacademy.controller;
+
+import java.time.YearMonth;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import com.techacademy.service.ReportStatsService;
+
+@Controller
+@RequestMapping("reports/stats")
+public class ReportStatsController {
+
+    // 1ページあたりの表示人数
+    private static final int PAGE_SIZE = 50;
+
+    // 全社の推移として表示する月数
+    private static final int TREND_MONTHS = 12;
+
+    private final ReportStatsService reportStatsService;
+
+    public ReportStatsController(ReportStatsService reportStatsService) {
+        this.reportStatsService = reportStatsService;
+    }
+
+    // 提出状況画面(月の指定がない場合は当月)
+    @GetMapping
+    public String stats(@RequestParam(required = false) YearMonth month, @RequestParam(defaultValue = "0") int page,
+            Model model) {
+        YearMonth target = month != null ? month : YearMonth.now();
+
+        model.addAttribute("month", target);
+        model.addAttribute("statPage", reportStatsService.findMonth(target, page, PAGE_SIZE));
+        model.addAttribute("trend", reportStatsService.findTrend(target, TREND_MONTHS));
+        return "reports/stats";
+    }
+
+    // 日報テーブルからの再集計
+    @PostMapping(value = "/recompute")
+    public String recompute(@RequestParam(required = false) YearMonth month, RedirectAttributes redirectAttributes) {
+        redirectAttributes.addFlashAttribute("recomputeCount", reportStatsService.recompute());
+        if (month != null) {
+            redirectAttributes.addAttribute("month", month);
+        }
+        return "redirect:/reports/stats";
+    }
+}
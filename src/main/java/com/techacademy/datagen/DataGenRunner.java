@@ -0,0 +1,49 @@
+package com.techacademy.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+// 大量データ生成コマンド
+// --spring.profiles.active=datagen で起動すると、データを生成して終了する
+// 件数等は application-datagen.properties または --app.datagen.employees=100 のように指定する
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(SyntheticDataProperties.class)
+public class DataGenRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGenRunner.class);
+
+    private final ConfigurableApplicationContext context;
+    private final JdbcTemplate jdbcTemplate;
+    private final SyntheticDataProperties properties;
+    private final PasswordEncoder passwordEncoder;
+
+    public DataGenRunner(ConfigurableApplicationContext context, JdbcTemplate jdbcTemplate,
+            SyntheticDataProperties properties, PasswordEncoder passwordEncoder) {
+        this.context = context;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(jdbcTemplate, properties,
+                passwordEncoder.encode(properties.getPassword()));
+        SyntheticDataGenerator.Result result = generator.generate();
+        log.info("Generated {} employees and {} reports in {} ms (seed={})", result.employeeCount(),
+                result.reportCount(), System.currentTimeMillis() - start, properties.getSeed());
+
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,169 @@
+package com.techacademy.datagen;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.techacademy.repository.ReportIdAllocator;
+
+// 従業員・日報の大量データ生成(バッチINSERT)
+// 乱数は設定のseedのみから作るため、同じ設定であれば生成結果は常に同じになる
+public class SyntheticDataGenerator {
+
+    private static final String INSERT_EMPLOYEE_SQL = "INSERT INTO employees "
+            + "(code, name, role, password, delete_flg, created_at, updated_at) VALUES (?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String INSERT_REPORT_SQL = "INSERT INTO reports "
+            + "(id, report_date, title, content, employee_code, delete_flg, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String[] FAMILY_NAMES = { "佐藤", "鈴木", "高橋", "田中", "伊藤", "渡辺", "山本", "中村", "小林", "加藤",
+            "吉田", "山田", "佐々木", "山口", "松本", "井上", "木村", "林", "斎藤", "清水" };
+
+    private static final String[] GIVEN_NAMES = { "太郎", "花子", "一郎", "美咲", "健太", "陽菜", "翔太", "結衣", "大輔", "葵",
+            "拓也", "さくら", "直樹", "由美", "和也", "愛", "亮", "真由美", "誠", "彩" };
+
+    private static final String[] PROJECTS = { "基幹システム更改", "新規顧客開拓", "社内研修", "品質改善活動", "販売管理システム",
+            "問い合わせ窓口", "年度予算策定", "物流拠点移転", "採用活動", "データ分析基盤" };
+
+    private static final String[] ACTIVITIES = { "進捗報告", "打合せ", "設計レビュー", "課題対応", "資料作成", "定例会議",
+            "現場調査", "テスト実施", "見積り作成", "振り返り" };
+
+    private static final String[] SENTENCES = { "本日は午前中に顧客との打合せを行い、要件の確認を進めました。",
+            "午後は社内で設計書のレビューを実施し、指摘事項を整理しました。", "来週の作業計画について、チーム内で認識を合わせました。",
+            "問い合わせ対応に想定以上の時間を要したため、明日以降の作業を一部見直します。", "不具合の原因調査を進め、再現条件を特定しました。",
+            "新しい案件の見積りを作成し、上長に確認を依頼しました。", "進捗は概ね予定どおりですが、一部の作業に遅れが出ています。",
+            "関係部署と調整を行い、次回の打合せ日程を決定しました。", "テスト結果を取りまとめ、残課題を一覧にしました。",
+            "明日は資料の修正と、先方への回答を予定しています。", "研修で学んだ内容を業務手順に反映しました。",
+            "移動中に議事録を作成し、関係者に共有しました。" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SyntheticDataProperties properties;
+    private final String passwordHash;
+    private final ReportIdAllocator reportIdAllocator;
+
+    // passwordHashには設定のパスワードをハッシュ化した値を指定する
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, SyntheticDataProperties properties,
+            String passwordHash) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.passwordHash = passwordHash;
+        this.reportIdAllocator = new ReportIdAllocator(jdbcTemplate);
+    }
+
+    // 生成結果の件数
+    public record Result(long employeeCount, long reportCount) {
+    }
+
+    // 従業員と日報を生成する
+    public Result generate() {
+        Random random = new Random(properties.getSeed());
+        List<LocalDate> workdays = workdays();
+
+        List<Object[]> employees = new ArrayList<>(properties.getBatchSize());
+        List<Object[]> reports = new ArrayList<>(properties.getBatchSize());
+        long reportCount = 0;
+
+        for (int i = 0; i < properties.getEmployees(); i++) {
+            String code = employeeCode(i);
+            Timestamp joinedAt = Timestamp.valueOf(workdays.get(0).atTime(9, 0));
+            employees.add(new Object[] { code, name(random), i < properties.getAdmins() ? "ADMIN" : "GENERAL",
+                    passwordHash, joinedAt, joinedAt });
+            if (employees.size() == properties.getBatchSize()) {
+                flush(INSERT_EMPLOYEE_SQL, employees);
+            }
+        }
+        flush(INSERT_EMPLOYEE_SQL, employees);
+
+        for (int i = 0; i < properties.getEmployees(); i++) {
+            String code = employeeCode(i);
+            for (LocalDate date : workdays) {
+                if (random.nextDouble() >= properties.getSubmissionRate()) {
+                    continue;
+                }
+                // 提出時刻は17時～20時
+                Timestamp submittedAt = Timestamp.valueOf(date.atTime(17, 0).plusMinutes(random.nextInt(180)));
+                // IDは登録時に設定する
+                reports.add(new Object[] { null, Date.valueOf(date), title(random), content(random), code, submittedAt,
+                        submittedAt });
+                reportCount++;
+                if (reports.size() == properties.getBatchSize()) {
+                    flushReports(reports);
+                }
+            }
+        }
+        flushReports(reports);
+
+        return new Result(properties.getEmployees(), reportCount);
+    }
+
+    // i番目(0始まり)の従業員の社員番号
+    public String employeeCode(int index) {
+        return properties.getCodePrefix() + String.format("%05d", index);
+    }
+
+    // 対象期間の平日(古い順)
+    private List<LocalDate> workdays() {
+        List<LocalDate> workdays = new ArrayList<>(properties.getWorkdays());
+        LocalDate date = properties.getEndDate();
+        while (workdays.size() < properties.getWorkdays()) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                workdays.add(0, date);
+            }
+            date = date.minusDays(1);
+        }
+        return workdays;
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    // 日報は件数分のIDを確保してから登録する
+    private void flushReports(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            long id = reportIdAllocator.allocate(rows.size());
+            for (Object[] row : rows) {
+                row[0] = id++;
+            }
+            flush(INSERT_REPORT_SQL, rows);
+        }
+    }
+
+    private String name(Random random) {
+        return FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)] + "　"
+                + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+    }
+
+    private String title(Random random) {
+        int length = properties.getTitleMinLength()
+                + random.nextInt(properties.getTitleMaxLength() - properties.getTitleMinLength() + 1);
+        StringBuilder title = new StringBuilder();
+        title.append(PROJECTS[random.nextInt(PROJECTS.length)]).append("の")
+                .append(ACTIVITIES[random.nextInt(ACTIVITIES.length)]);
+        while (title.length() < length) {
+            title.append("・").append(ACTIVITIES[random.nextInt(ACTIVITIES.length)]);
+        }
+        return title.substring(0, length);
+    }
+
+    private String content(Random random) {
+        long length = Math.round(properties.getContentMeanLength()
+                + random.nextGaussian() * properties.getContentStdDevLength());
+        length = Math.max(20, Math.min(600, length));
+        StringBuilder content = new StringBuilder();
+        while (content.length() < length) {
+            content.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        return content.substring(0, (int) length);
+    }
+}
@@ -0,0 +1,45 @@
+package com.techacademy.datagen;
+
+import java.time.LocalDate;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+// 大量データ生成の設定
+// 同じ設定(seedを含む)であれば、毎回同じデータが生成される
+@Data
+@ConfigurationProperties(prefix = "app.datagen")
+public class SyntheticDataProperties {
+
+    // 乱数の種
+    private long seed = 1;
+
+    // 従業員数(先頭のadmins人は管理者)
+    private int employees = 5000;
+    private int admins = 50;
+
+    // 社員番号の接頭辞(社員番号は接頭辞+連番5桁)
+    private String codePrefix = "S";
+
+    // 全従業員共通のログインパスワード
+    private String password = "password";
+
+    // 日報の対象期間(endDate以前の平日workdays日分、既定は約5年)
+    private LocalDate endDate = LocalDate.of(2024, 12, 31);
+    private int workdays = 1300;
+
+    // 1日あたりの日報提出率(0～1)
+    private double submissionRate = 0.9;
+
+    // タイトルの文字数(範囲内で一様)
+    private int titleMinLength = 10;
+    private int titleMaxLength = 40;
+
+    // 内容の文字数(正規分布、20～600文字の範囲に収める)
+    private int contentMeanLength = 250;
+    private int contentStdDevLength = 120;
+
+    // 1回のバッチINSERTの件数
+    private int batchSize = 1000;
+}
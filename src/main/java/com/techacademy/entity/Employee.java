@@ -4,6 +4,8 @@ package com.techacademy.entity;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.validator.constraints.Length;
 
@@ -13,15 +15,18 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "employees")
+@Table(name = "employees", indexes = @Index(name = "idx_employees_name", columnList = "name, code"))
 @SQLRestriction("delete_flg = false")
+@DynamicUpdate
 public class Employee {
 
     @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL)
@@ -75,4 +80,11 @@ public class Employee {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // 楽観ロック用のバージョン(更新のたびに加算、画面から受け取った値と異なる場合は更新しない)
+    // JDBCで直接登録する行は既定値の0とする
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 }
\ No newline at end of file
@@ -4,38 +4,62 @@ package com.techacademy.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.validator.constraints.Length;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 //import jakarta.persistence.EnumType;
 //import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", uniqueConstraints = @UniqueConstraint(name = Report.UK_EMPLOYEE_LIVE_DATE, columnNames = {
+        "employee_code", "live_report_date" }), indexes = {
+                @Index(name = "idx_reports_employee_list", columnList = "employee_code, delete_flg, report_date"),
+                @Index(name = "idx_reports_list", columnList = "delete_flg, report_date, id") })
 @SQLRestriction("delete_flg = false")
+@DynamicUpdate
 public class Report {
 
-    @ManyToOne
+    // 同一従業員・同一日付の日報重複を防ぐ一意制約(削除済みの日報は対象外)
+    public static final String UK_EMPLOYEE_LIVE_DATE = "uk_reports_employee_live_date";
+
+    // ID採番表(表名・行の名前)と1回に確保するIDの件数
+    // JDBCで直接登録する場合もReportIdAllocatorで同じ表から採番する
+    public static final String ID_TABLE = "id_generators";
+    public static final String ID_NAME = "reports";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // 従業員は必要な場合のみ取得する(取得する場合はクエリ側で結合を指定する)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_code", referencedColumnName = "code", nullable = false)
     private Employee employee;
 
 
     // ID
+    // 採番表からID_ALLOCATION_SIZE件ずつまとめて確保する(IDENTITYと異なり、INSERTをバッチで実行できる)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "report_id")
+    @TableGenerator(name = "report_id", table = ID_TABLE, pkColumnName = "name", valueColumnName = "next_val",
+            pkColumnValue = ID_NAME, initialValue = 1, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     // 日付
@@ -45,14 +69,20 @@ public class Report {
     private LocalDate reportDate;
 
 
+    // 一意制約用の日付(削除フラグが立っていない場合のみ日付、削除済みの場合はNULL)
+    // MySQLは部分インデックスを持たないため、生成列で削除済みの日報を一意制約の対象外にする
+    @Column(insertable = false, updatable = false,
+            columnDefinition = "DATE GENERATED ALWAYS AS (CASE WHEN delete_flg = 0 THEN report_date END)")
+    private LocalDate liveReportDate;
+
     // タイトル
     @Column(length = 100, nullable = false)
     @NotEmpty
     @Length(max = 100)
     private String title;
 
-    // 内容
-    @Column(nullable = false, columnDefinition="LONGTEXT")
+    // 内容(600文字以下のため行内に格納する)
+    @Column(length = 600, nullable = false)
     @NotEmpty
     @Length(max = 600)
     private String content;
@@ -69,4 +99,11 @@ public class Report {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // 楽観ロック用のバージョン(更新のたびに加算、画面から受け取った値と異なる場合は更新しない)
+    // JDBCで直接登録する行は既定値の0とする
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 }
\ No newline at end of file
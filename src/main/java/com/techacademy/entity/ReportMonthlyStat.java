@@ -0,0 +1,54 @@
+package com.techacademy.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 従業員・月ごとの日報提出件数(集計表)
+// 日報の登録・更新・削除時に差分で更新し、定期的に日報テーブルから再集計する
+@Data
+@Entity
+@Table(name = "report_monthly_stats")
+@IdClass(ReportMonthlyStat.Key.class)
+public class ReportMonthlyStat {
+
+    // 社員番号
+    @Id
+    @Column(length = 10)
+    private String employeeCode;
+
+    // 年月(yyyyMM形式の数値 例: 202412)
+    @Id
+    private int statMonth;
+
+    // 提出件数(削除済みの日報は含まない)
+    @Column(nullable = false)
+    private long reportCount;
+
+    // その月の最終提出日(日報の日付)
+    private LocalDate lastReportDate;
+
+    // 主キー
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String employeeCode;
+        private int statMonth;
+    }
+
+    // 日付から年月(yyyyMM)を求める
+    public static int monthOf(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+}
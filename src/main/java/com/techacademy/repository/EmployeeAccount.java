@@ -0,0 +1,21 @@
+package com.techacademy.repository;
+
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Employee.Role;
+
+// ログイン用の従業員情報(従業員キャッシュに格納する、変更不可)
+// エンティティはスレッド・セッション間で共有しないため、キャッシュには値のみを格納する
+public record EmployeeAccount(String code, String name, Role role, String password, Long version) {
+
+    // ログイン中のユーザー用のエンティティを作成する(呼び出しごとに別のインスタンス、永続化コンテキスト外)
+    // バージョンを設定し、日報の登録時に登録済みの従業員(未保存のエンティティではない)として参照できるようにする
+    public Employee toEmployee() {
+        Employee employee = new Employee();
+        employee.setCode(code);
+        employee.setName(name);
+        employee.setRole(role);
+        employee.setPassword(password);
+        employee.setVersion(version);
+        return employee;
+    }
+}
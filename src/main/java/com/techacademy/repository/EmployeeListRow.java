@@ -0,0 +1,5 @@
+package com.techacademy.repository;
+
+// 従業員一覧画面の1行分(一覧表示に必要な項目のみ)
+public record EmployeeListRow(String code, String name) {
+}
@@ -1,8 +1,46 @@
 package com.techacademy.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.techacademy.entity.Employee;
 
+import jakarta.persistence.QueryHint;
+
 public interface EmployeeRepository extends JpaRepository<Employee, String> {
-}
\ No newline at end of file
+
+    // 全件取得(参照専用)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    @Override
+    List<Employee> findAll();
+
+    // 従業員一覧(一覧表示に必要な項目のみ、氏名の前方一致で絞り込み)
+    // 件数はCOUNTクエリで取得される
+    Page<EmployeeListRow> findByNameStartingWith(String namePrefix, Pageable pageable);
+
+    // 従業員一覧(社員番号・氏名のみ、日報カレンダー用)
+    Page<EmployeeListRow> findBy(Pageable pageable);
+
+    // 全従業員の社員番号・氏名(社員番号順、未提出者一覧用)
+    List<EmployeeListRow> findByOrderByCode();
+
+    // ログイン用の従業員情報(従業員キャッシュ用)
+    Optional<EmployeeAccount> findAccountByCode(String code);
+
+    // 従業員を論理削除(未削除の場合のみ。更新件数が0なら存在しないか削除済み)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.deleteFlg = true, e.updatedAt = :updatedAt, e.version = e.version + 1 "
+            + "WHERE e.code = :code AND e.deleteFlg = false")
+    int softDeleteByCode(@Param("code") String code, @Param("updatedAt") LocalDateTime updatedAt);
+}
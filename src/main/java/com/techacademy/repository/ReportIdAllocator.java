@@ -0,0 +1,51 @@
+package com.techacademy.repository;
+
+import java.util.List;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.techacademy.entity.Report;
+
+// 日報IDの採番(JDBCで直接日報を登録する場合に使用する)
+// Hibernateの採番(Report.id、pooled-lo)と同じ採番表から、採番表の値を先頭とする範囲を確保する
+// 採番表の更新は値を比較して行い、他の採番と競合した場合は読み直して再試行する
+@Component
+public class ReportIdAllocator {
+
+    private static final String SELECT_SQL = "SELECT next_val FROM " + Report.ID_TABLE + " WHERE name = ? FOR UPDATE";
+
+    private static final String UPDATE_SQL = "UPDATE " + Report.ID_TABLE
+            + " SET next_val = ? WHERE name = ? AND next_val = ?";
+
+    // 採番表の行がない場合は登録済みの日報の次のIDから開始する
+    private static final String INSERT_SQL = "INSERT INTO " + Report.ID_TABLE
+            + " (name, next_val) SELECT ?, COALESCE(MAX(id), 0) + 1 FROM reports";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReportIdAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // count件分のIDを確保し、先頭のIDを返す(先頭から連番でcount件使用できる)
+    // トランザクション外で呼び出す(トランザクション内では採番表の行ロックがコミットまで残る)
+    public long allocate(int count) {
+        while (true) {
+            List<Long> values = jdbcTemplate.queryForList(SELECT_SQL, Long.class, Report.ID_NAME);
+            if (values.isEmpty()) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, Report.ID_NAME);
+                } catch (DuplicateKeyException e) {
+                    // 同時に作成された場合はその値を読み直す
+                }
+                continue;
+            }
+            long first = values.get(0);
+            if (jdbcTemplate.update(UPDATE_SQL, first + count, Report.ID_NAME, first) == 1) {
+                return first;
+            }
+        }
+    }
+}
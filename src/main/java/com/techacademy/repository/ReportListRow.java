@@ -0,0 +1,7 @@
+package com.techacademy.repository;
+
+import java.time.LocalDate;
+
+// 日報一覧画面の1行分(一覧表示に必要な項目のみ)
+public record ReportListRow(Long id, LocalDate reportDate, String title, String employeeCode, String employeeName) {
+}
@@ -0,0 +1,82 @@
+package com.techacademy.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.techacademy.entity.ReportMonthlyStat;
+
+public interface ReportMonthlyStatRepository extends JpaRepository<ReportMonthlyStat, ReportMonthlyStat.Key> {
+
+    // 提出件数を1件加算する(集計行がなければ作成する)
+    @Modifying
+    @Query(value = "INSERT INTO report_monthly_stats (employee_code, stat_month, report_count, last_report_date) "
+            + "VALUES (:employeeCode, :statMonth, 1, :reportDate) "
+            + "ON DUPLICATE KEY UPDATE report_count = report_count + 1, "
+            + "last_report_date = GREATEST(COALESCE(last_report_date, VALUES(last_report_date)), VALUES(last_report_date))", nativeQuery = true)
+    int increment(String employeeCode, int statMonth, LocalDate reportDate);
+
+    // 提出件数をcount件加算する(一括取込用、集計行がなければ作成する)
+    @Modifying
+    @Query(value = "INSERT INTO report_monthly_stats (employee_code, stat_month, report_count, last_report_date) "
+            + "VALUES (:employeeCode, :statMonth, :count, :lastReportDate) "
+            + "ON DUPLICATE KEY UPDATE report_count = report_count + VALUES(report_count), "
+            + "last_report_date = GREATEST(COALESCE(last_report_date, VALUES(last_report_date)), VALUES(last_report_date))", nativeQuery = true)
+    int incrementBy(String employeeCode, int statMonth, int count, LocalDate lastReportDate);
+
+    // 提出件数を1件減算する
+    // 減算した日付が最終提出日だった場合は、その月の残りの日報から最終提出日を求め直す
+    @Modifying
+    @Query(value = "UPDATE report_monthly_stats SET report_count = report_count - 1, "
+            + "last_report_date = CASE WHEN last_report_date = :reportDate THEN "
+            + "(SELECT MAX(r.report_date) FROM reports r WHERE r.employee_code = :employeeCode AND r.delete_flg = 0 "
+            + "AND r.report_date BETWEEN :monthStart AND :monthEnd AND r.report_date <> :reportDate) "
+            + "ELSE last_report_date END "
+            + "WHERE employee_code = :employeeCode AND stat_month = :statMonth", nativeQuery = true)
+    int decrement(String employeeCode, int statMonth, LocalDate reportDate, LocalDate monthStart, LocalDate monthEnd);
+
+    // 提出件数が0件になった集計行の削除
+    @Modifying
+    @Query("DELETE FROM ReportMonthlyStat s WHERE s.employeeCode = :employeeCode AND s.reportCount <= 0")
+    int deleteEmptyByEmployeeCode(String employeeCode);
+
+    // 従業員の集計行をすべて削除する(従業員削除時)
+    @Modifying
+    @Query("DELETE FROM ReportMonthlyStat s WHERE s.employeeCode = :employeeCode")
+    int deleteByEmployeeCode(String employeeCode);
+
+    // 日報テーブルからの再集計
+    @Modifying
+    @Query(value = "DELETE FROM report_monthly_stats", nativeQuery = true)
+    int deleteAllStats();
+
+    @Modifying
+    @Query(value = "INSERT INTO report_monthly_stats (employee_code, stat_month, report_count, last_report_date) "
+            + "SELECT employee_code, YEAR(report_date) * 100 + MONTH(report_date), COUNT(*), MAX(report_date) "
+            + "FROM reports WHERE delete_flg = 0 "
+            + "GROUP BY employee_code, YEAR(report_date) * 100 + MONTH(report_date)", nativeQuery = true)
+    int insertFromReports();
+
+    // 集計表全体の提出件数(日報件数との突合せ用)
+    @Query("SELECT COALESCE(SUM(s.reportCount), 0) FROM ReportMonthlyStat s")
+    long sumReportCount();
+
+    // 指定月の従業員ごとの提出件数と最終提出日(社員番号順)
+    // 最終提出日は指定月に限らず、全期間の最終提出日とする
+    @Query(value = "SELECT new com.techacademy.repository.ReportStatRow(e.code, e.name, COALESCE(s.reportCount, 0), "
+            + "(SELECT MAX(l.lastReportDate) FROM ReportMonthlyStat l WHERE l.employeeCode = e.code)) "
+            + "FROM Employee e LEFT JOIN ReportMonthlyStat s ON s.employeeCode = e.code AND s.statMonth = :statMonth "
+            + "ORDER BY e.code",
+            countQuery = "SELECT COUNT(e) FROM Employee e")
+    Page<ReportStatRow> findMonthlyRows(int statMonth, Pageable pageable);
+
+    // 全社の月ごとの提出件数(from～toの月、古い順) 要素は[年月, 件数]
+    @Query("SELECT s.statMonth, SUM(s.reportCount) FROM ReportMonthlyStat s "
+            + "WHERE s.statMonth BETWEEN :fromMonth AND :toMonth GROUP BY s.statMonth ORDER BY s.statMonth")
+    List<Object[]> sumByMonth(int fromMonth, int toMonth);
+}
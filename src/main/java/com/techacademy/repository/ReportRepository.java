@@ -1,23 +1,105 @@
 package com.techacademy.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Report;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
     List<Report> findByEmployee(Employee employee);
 
+    // 全件取得(従業員を結合して取得する、参照専用)
+    @EntityGraph(attributePaths = "employee")
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL") })
+    @Override
+    List<Report> findAll();
+
+    // 1件取得(従業員を結合して取得する)
+    // 削除処理では取得したエンティティを変更して更新するため、参照専用にはしない
+    @EntityGraph(attributePaths = "employee")
+    @Override
+    Optional<Report> findById(Long id);
+
  // 指定した日付と従業員でレポートが存在するかチェック
-    @Query("SELECT COUNT(r) > 0 FROM Report r WHERE r.reportDate = :reportDate AND r.employee = :employee ")
+    // (idを指定した場合はその日報自身を除く)
+    @Query("SELECT COUNT(r) > 0 FROM Report r WHERE r.reportDate = :reportDate AND r.employee = :employee "
+            + "AND (:id IS NULL OR r.id <> :id)")
     boolean existsByReportDateAndEmployee(@Param("reportDate") LocalDate reportDate,
                                           @Param("employee") Employee employee,
                                           @Param("id") Long id);
-}
\ No newline at end of file
+
+    // 日報一覧(全従業員)の先頭ページ
+    @Query("SELECT new com.techacademy.repository.ReportListRow(r.id, r.reportDate, r.title, e.code, e.name) FROM Report r JOIN r.employee e "
+            + "ORDER BY r.reportDate DESC, r.id DESC")
+    List<ReportListRow> findFirstPage(Limit limit);
+
+    // 日報一覧(全従業員)の指定位置(日付, ID)より後ろのページ
+    @Query("SELECT new com.techacademy.repository.ReportListRow(r.id, r.reportDate, r.title, e.code, e.name) FROM Report r JOIN r.employee e "
+            + "WHERE r.reportDate < :reportDate OR (r.reportDate = :reportDate AND r.id < :id) "
+            + "ORDER BY r.reportDate DESC, r.id DESC")
+    List<ReportListRow> findPageAfter(@Param("reportDate") LocalDate reportDate, @Param("id") Long id, Limit limit);
+
+    // 日報一覧(指定従業員)の先頭ページ
+    @Query("SELECT new com.techacademy.repository.ReportListRow(r.id, r.reportDate, r.title, e.code, e.name) FROM Report r JOIN r.employee e "
+            + "WHERE e.code = :employeeCode ORDER BY r.reportDate DESC, r.id DESC")
+    List<ReportListRow> findFirstPageByEmployeeCode(@Param("employeeCode") String employeeCode, Limit limit);
+
+    // 日報一覧(指定従業員)の指定位置(日付, ID)より後ろのページ
+    @Query("SELECT new com.techacademy.repository.ReportListRow(r.id, r.reportDate, r.title, e.code, e.name) FROM Report r JOIN r.employee e "
+            + "WHERE e.code = :employeeCode "
+            + "AND (r.reportDate < :reportDate OR (r.reportDate = :reportDate AND r.id < :id)) "
+            + "ORDER BY r.reportDate DESC, r.id DESC")
+    List<ReportListRow> findPageAfterByEmployeeCode(@Param("employeeCode") String employeeCode,
+                                             @Param("reportDate") LocalDate reportDate,
+                                             @Param("id") Long id,
+                                             Limit limit);
+
+    // 指定IDの日報(一覧表示に必要な項目のみ、検索結果の表示用)
+    @Query("SELECT new com.techacademy.repository.ReportListRow(r.id, r.reportDate, r.title, e.code, e.name) FROM Report r JOIN r.employee e "
+            + "WHERE r.id IN :ids")
+    List<ReportListRow> findListRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 指定従業員の日報をまとめて論理削除(更新件数を返す)
+    // バージョンも加算し、削除前に読み込んだ日報の更新は楽観ロックエラーとする
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Report r SET r.deleteFlg = true, r.updatedAt = :updatedAt, r.version = r.version + 1 "
+            + "WHERE r.employee.code = :employeeCode AND r.deleteFlg = false")
+    int softDeleteByEmployeeCode(@Param("employeeCode") String employeeCode,
+                                 @Param("updatedAt") LocalDateTime updatedAt);
+
+    // 指定従業員の日報件数
+    @Query("SELECT COUNT(r) FROM Report r WHERE r.employee.code = :employeeCode")
+    long countByEmployeeCode(@Param("employeeCode") String employeeCode);
+
+    // CSV出力用(結果を1件ずつ読み込む)
+    // MySQLではURLにuseCursorFetch=trueを指定することで、フェッチサイズ単位でサーバーから取得される
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT r FROM Report r JOIN FETCH r.employee e "
+            + "WHERE (:fromDate IS NULL OR r.reportDate >= :fromDate) "
+            + "AND (:toDate IS NULL OR r.reportDate <= :toDate) "
+            + "AND (:employeeCode IS NULL OR e.code = :employeeCode) "
+            + "ORDER BY r.reportDate, r.id")
+    Stream<Report> streamForExport(@Param("fromDate") LocalDate fromDate,
+                                   @Param("toDate") LocalDate toDate,
+                                   @Param("employeeCode") String employeeCode);
+}
@@ -0,0 +1,7 @@
+package com.techacademy.repository;
+
+import java.time.LocalDate;
+
+// 提出状況画面の1行分(従業員ごとの指定月の提出件数と最終提出日)
+public record ReportStatRow(String employeeCode, String employeeName, long reportCount, LocalDate lastReportDate) {
+}
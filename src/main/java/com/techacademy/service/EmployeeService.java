@@ -6,28 +6,59 @@ import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.techacademy.PasswordHashingBusyException;
+import com.techacademy.ReplicaRoutingContext;
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.entity.Employee;
-import com.techacademy.entity.Report;
+import com.techacademy.repository.EmployeeAccount;
+import com.techacademy.repository.EmployeeListRow;
 import com.techacademy.repository.EmployeeRepository;
 import com.techacademy.repository.ReportRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import org.springframework.transaction.annotation.Transactional;
 
+// 公開メソッドの処理時間を計測する(service.method)
+@Timed(value = "service.method", histogram = true)
 @Service
 public class EmployeeService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmployeeService.class);
+
+    // 従業員キャッシュ(ログイン用の従業員情報)
+    private static final String CACHE_NAME = "employees";
+
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
     private final ReportRepository reportRepository;
-
-    public EmployeeService(EmployeeRepository employeeRepository, ReportRepository reportRepository, PasswordEncoder passwordEncoder) {
+    private final ReportSearchService reportSearchService;
+    private final ReportStatsService reportStatsService;
+    private final ReportCalendarService reportCalendarService;
+    private final CacheManager cacheManager;
+
+    public EmployeeService(EmployeeRepository employeeRepository, ReportRepository reportRepository, PasswordEncoder passwordEncoder,
+            ReportSearchService reportSearchService, ReportStatsService reportStatsService,
+            ReportCalendarService reportCalendarService, CacheManager cacheManager) {
         this.employeeRepository = employeeRepository;
         this.reportRepository = reportRepository;
         this.passwordEncoder = passwordEncoder;
+        this.reportSearchService = reportSearchService;
+        this.reportStatsService = reportStatsService;
+        this.reportCalendarService = reportCalendarService;
+        this.cacheManager = cacheManager;
     }
 
     // 従業員保存
@@ -52,6 +83,7 @@ public class EmployeeService {
         employee.setUpdatedAt(now);
 
         employeeRepository.save(employee);
+        evictAfterCommit(employee.getCode());
         return ErrorKinds.SUCCESS;
     }
 
@@ -66,6 +98,12 @@ public class EmployeeService {
                 return ErrorKinds.CHECK_OK; // 存在しない場合のエラー処理
             }
 
+            // 画面表示後に他のユーザーが更新していた場合、またはバージョンが送信されていない場合はエラー
+            // (読み込み後に更新された場合はコミット時にObjectOptimisticLockingFailureExceptionとなる)
+            if (!existingEmployee.getVersion().equals(employee.getVersion())) {
+                return ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+            }
+
             // パスワードが空欄の場合、既存のパスワードを保持
             if (employee.getPassword() == null || employee.getPassword().isEmpty()) {
                 employee.setPassword(existingEmployee.getPassword());
@@ -99,6 +137,7 @@ public class EmployeeService {
             if (isUpdated) {
                 existingEmployee.setUpdatedAt(LocalDateTime.now());
                 employeeRepository.save(existingEmployee);
+                evictAfterCommit(existingEmployee.getCode());
             }
 
             return ErrorKinds.SUCCESS;
@@ -106,34 +145,68 @@ public class EmployeeService {
         return ErrorKinds.CHECK_OK;
 
     }
+    // パスワードハッシュの再計算結果を保存(パスワード自体は変更しない)
+    @Transactional
+    public Employee updatePasswordHash(String code, String encodedPassword) {
+        Employee employee = employeeRepository.findById(code).orElse(null);
+        if (employee == null) {
+            return null;
+        }
+        employee.setPassword(encodedPassword);
+        evictAfterCommit(code);
+        return employee;
+    }
+
+    // 従業員削除の結果(論理削除した日報の件数を含む)
+    public record DeleteResult(ErrorKinds errorKinds, int deletedReportCount) {
+    }
+
     // 従業員削除
+    // 従業員と従業員の日報はそれぞれ1回のUPDATEでまとめて論理削除する
     @Transactional
-    public ErrorKinds delete(String code, UserDetail userDetail) {
+    public DeleteResult delete(String code, UserDetail userDetail) {
 
         // 自分を削除しようとした場合はエラーメッセージを表示
         if (code.equals(userDetail.getEmployee().getCode())) {
-            return ErrorKinds.LOGINCHECK_ERROR;
-        }
-        Employee employee = findByCode(code);
-        if (employee == null) {
-            return ErrorKinds.CHECK_OK; // 既に削除済みの場合のエラー処理
+            return new DeleteResult(ErrorKinds.LOGINCHECK_ERROR, 0);
         }
         LocalDateTime now = LocalDateTime.now();
-        employee.setUpdatedAt(now);
-        employee.setDeleteFlg(true);
 
-        List<Report> reportList = reportRepository.findByEmployee(employee);
-        reportRepository.deleteAll(reportList);
+        // 従業員の論理削除(DB上の行を条件付きで更新するため、永続化コンテキストの状態に依存しない)
+        // 存在しない、または既に削除済みの場合は日報を更新しない
+        if (employeeRepository.softDeleteByCode(code, now) == 0) {
+            return new DeleteResult(ErrorKinds.CHECK_OK, 0); // 既に削除済みの場合のエラー処理
+        }
 
-        return ErrorKinds.SUCCESS;
+        // 日報の論理削除
+        int deletedReportCount = reportRepository.softDeleteByEmployeeCode(code, now);
+
+        log.info("Employee {} deleted with {} reports", code, deletedReportCount);
+        evictAfterCommit(code);
+        reportSearchService.removeByEmployee(code);
+        reportStatsService.removeEmployee(code);
+        reportCalendarService.removeEmployee(code);
+
+        return new DeleteResult(ErrorKinds.SUCCESS, deletedReportCount);
     }
 
     // 従業員一覧表示処理
+    @Transactional(readOnly = true)
     public List<Employee> findAll() {
         return employeeRepository.findAll();
     }
 
+    // 従業員一覧画面用のページ取得処理
+    // sortが"name"の場合は氏名順、それ以外は社員番号順
+    @Transactional(readOnly = true)
+    public Page<EmployeeListRow> findPage(String namePrefix, String sort, int page, int size) {
+        Sort order = "name".equals(sort) ? Sort.by("name", "code") : Sort.by("code");
+        String prefix = namePrefix == null ? "" : namePrefix;
+        return employeeRepository.findByNameStartingWith(prefix, PageRequest.of(Math.max(page, 0), size, order));
+    }
+
     // 1件を検索
+    @Transactional(readOnly = true)
     public Employee findByCode(String code) {
         // findByIdで検索
         Optional<Employee> option = employeeRepository.findById(code);
@@ -142,6 +215,15 @@ public class EmployeeService {
         return employee;
     }
 
+    // ログイン用の従業員情報(従業員キャッシュを経由する)
+    // キャッシュには変更不可の値を格納し、エンティティは共有しない
+    // 削除直後の再格納でレプリカの古い値を格納しないよう、キャッシュへの格納時はプライマリから読む
+    @Cacheable(cacheNames = CACHE_NAME, unless = "#result == null")
+    @Transactional(readOnly = true)
+    public EmployeeAccount findAccount(String code) {
+        return ReplicaRoutingContext.onPrimary(() -> employeeRepository.findAccountByCode(code).orElse(null));
+    }
+
     // 従業員パスワードチェック 一時的にPublicに変更
     public ErrorKinds employeePasswordCheck(Employee employee) {
 
@@ -157,7 +239,12 @@ public class EmployeeService {
             return ErrorKinds.RANGECHECK_ERROR;
         }
 
-        employee.setPassword(passwordEncoder.encode(employee.getPassword()));
+        // ハッシュ計算が混み合っている場合は入力画面のエラーとする
+        try {
+            employee.setPassword(passwordEncoder.encode(employee.getPassword()));
+        } catch (PasswordHashingBusyException e) {
+            return ErrorKinds.PASSWORD_BUSY_ERROR;
+        }
 
         return ErrorKinds.CHECK_OK;
     }
@@ -179,4 +266,13 @@ public class EmployeeService {
         return passwordLength < 8 || 16 < passwordLength;
     }
 
+    // 従業員キャッシュからの削除
+    // トランザクション中の場合はコミット後に削除する(コミット前に削除すると、更新前の値が再度格納される場合がある)
+    private void evictAfterCommit(String code) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            new TransactionAwareCacheDecorator(cache).evict(code);
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.techacademy.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.techacademy.repository.EmployeeListRow;
+import com.techacademy.repository.EmployeeRepository;
+
+// 日報の提出カレンダー(従業員ごとの提出日のビット集合)
+// 起動時に日報テーブルから読み込み、日報の登録・更新・削除のコミット後に反映する
+// 従業員・年ごとに1年分(最大366日)のビット集合を持ち、更新時は複製して差し替えるため参照時のロックは不要
+@Service
+public class ReportCalendarService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportCalendarService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmployeeRepository employeeRepository;
+
+    // 従業員・年ごとの提出日(ビット位置は年初からの日数)
+    private volatile Map<EmployeeYear, BitSet> calendars = new ConcurrentHashMap<>();
+
+    // 読込が完了しているかどうか(読込前は提出日の確認に使わない)
+    private volatile boolean loaded;
+
+    // 更新と再読込の排他制御(再読込中の更新が失われないようにする)
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public ReportCalendarService(JdbcTemplate jdbcTemplate, EmployeeRepository employeeRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.employeeRepository = employeeRepository;
+    }
+
+    private record EmployeeYear(String employeeCode, int year) {
+    }
+
+    // カレンダーの1行分(従業員の1か月分の提出日)
+    // daysは1日をビット0とした提出日のビット列
+    public record CalendarRow(String employeeCode, String employeeName, int days) {
+
+        // 指定日(1始まり)に日報を提出しているかどうか
+        public boolean submitted(int day) {
+            return (days & (1 << (day - 1))) != 0;
+        }
+
+        // 提出日数
+        public int submittedCount() {
+            return Integer.bitCount(days);
+        }
+    }
+
+    // 日報テーブルからの読込(起動時)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        writeLock.lock();
+        try {
+            Map<EmployeeYear, BitSet> loading = new ConcurrentHashMap<>();
+            long[] count = new long[1];
+            jdbcTemplate.query("SELECT employee_code, report_date FROM reports WHERE delete_flg = 0", rs -> {
+                LocalDate reportDate = rs.getDate(2).toLocalDate();
+                loading.computeIfAbsent(new EmployeeYear(rs.getString(1), reportDate.getYear()), k -> new BitSet(366))
+                        .set(reportDate.getDayOfYear() - 1);
+                count[0]++;
+            });
+            calendars = loading;
+            loaded = true;
+            log.info("Report calendar loaded ({} reports)", count[0]);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // 指定日に日報を提出しているかどうか
+    public boolean hasReport(String employeeCode, LocalDate date) {
+        BitSet days = calendars.get(new EmployeeYear(employeeCode, date.getYear()));
+        return days != null && days.get(date.getDayOfYear() - 1);
+    }
+
+    // 日報の登録
+    public void added(String employeeCode, LocalDate reportDate) {
+        afterCommit(() -> set(employeeCode, reportDate, true));
+    }
+
+    // 従業員の日報の一括登録
+    public void addedAll(String employeeCode, List<LocalDate> reportDates) {
+        afterCommit(() -> reportDates.forEach(reportDate -> set(employeeCode, reportDate, true)));
+    }
+
+    // 日報の削除
+    public void removed(String employeeCode, LocalDate reportDate) {
+        afterCommit(() -> set(employeeCode, reportDate, false));
+    }
+
+    // 日報の日付変更
+    public void moved(String employeeCode, LocalDate oldDate, LocalDate newDate) {
+        afterCommit(() -> {
+            set(employeeCode, oldDate, false);
+            set(employeeCode, newDate, true);
+        });
+    }
+
+    // 従業員の削除(日報はすべて論理削除される)
+    public void removeEmployee(String employeeCode) {
+        afterCommit(() -> calendars.keySet().removeIf(key -> key.employeeCode().equals(employeeCode)));
+    }
+
+    // 指定月の従業員ごとの提出日(社員番号順)
+    @Transactional(readOnly = true)
+    public Page<CalendarRow> findMonth(YearMonth month, int page, int size) {
+        return employeeRepository.findBy(PageRequest.of(Math.max(page, 0), size, Sort.by("code")))
+                .map(employee -> new CalendarRow(employee.code(), employee.name(), days(employee.code(), month)));
+    }
+
+    // 指定日に日報を提出していない従業員(社員番号順)
+    @Transactional(readOnly = true)
+    public List<EmployeeListRow> findMissing(LocalDate date) {
+        return employeeRepository.findByOrderByCode().stream()
+                .filter(employee -> !hasReport(employee.code(), date))
+                .toList();
+    }
+
+    // 従業員の1か月分の提出日のビット列
+    private int days(String employeeCode, YearMonth month) {
+        BitSet days = calendars.get(new EmployeeYear(employeeCode, month.getYear()));
+        if (days == null) {
+            return 0;
+        }
+        int from = month.atDay(1).getDayOfYear() - 1;
+        long[] words = days.get(from, from + month.lengthOfMonth()).toLongArray();
+        return words.length == 0 ? 0 : (int) words[0];
+    }
+
+    // 提出日の設定・解除(ビット集合は複製して差し替える)
+    private void set(String employeeCode, LocalDate date, boolean submitted) {
+        calendars.compute(new EmployeeYear(employeeCode, date.getYear()), (key, days) -> {
+            BitSet copy = days == null ? new BitSet(366) : (BitSet) days.clone();
+            copy.set(date.getDayOfYear() - 1, submitted);
+            return copy.isEmpty() ? null : copy;
+        });
+    }
+
+    // トランザクション中の場合はコミット後に、それ以外は即座に反映する
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    run(task);
+                }
+            });
+        } else {
+            run(task);
+        }
+    }
+
+    private void run(Runnable task) {
+        writeLock.lock();
+        try {
+            task.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
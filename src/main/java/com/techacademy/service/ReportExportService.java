@@ -0,0 +1,66 @@
+package com.techacademy.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportRepository;
+
+import jakarta.persistence.EntityManager;
+
+// 日報CSV出力
+// 1件ずつ読み込んで書き出し、書き出し済みの日報は永続化コンテキストから切り離す(出力件数によらずメモリ使用量を一定に保つ)
+@Service
+public class ReportExportService {
+
+    // 出力CSVのヘッダ(取込CSVと同じ項目を先頭に並べる)
+    static final String[] HEADERS = { "employee_code", "report_date", "title", "content", "employee_name", "id",
+            "created_at", "updated_at" };
+
+    // 出力先へのフラッシュ間隔(件数)
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final ReportRepository reportRepository;
+    private final EntityManager entityManager;
+
+    public ReportExportService(ReportRepository reportRepository, EntityManager entityManager) {
+        this.reportRepository = reportRepository;
+        this.entityManager = entityManager;
+    }
+
+    // CSV出力処理(Excelで開けるようBOM付きUTF-8で出力する)
+    // fromDate, toDate, employeeCodeはnullの場合は絞り込まない
+    @Transactional(readOnly = true)
+    public long exportCsv(LocalDate fromDate, LocalDate toDate, String employeeCode, Writer writer)
+            throws IOException {
+        writer.write('\uFEFF');
+        CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(HEADERS).build());
+
+        long count = 0;
+        try (Stream<Report> reports = reportRepository.streamForExport(fromDate, toDate, employeeCode)) {
+            for (Report report : (Iterable<Report>) reports::iterator) {
+                printer.printRecord(report.getEmployee().getCode(), report.getReportDate(), report.getTitle(),
+                        report.getContent(), report.getEmployee().getName(), report.getId(), report.getCreatedAt(),
+                        report.getUpdatedAt());
+                entityManager.detach(report);
+
+                count++;
+                if (count % FLUSH_INTERVAL == 0) {
+                    printer.flush();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        printer.flush();
+        return count;
+    }
+}
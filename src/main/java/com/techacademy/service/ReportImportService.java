@@ -0,0 +1,382 @@
+package com.techacademy.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportIdAllocator;
+
+// 日報CSV一括取込
+// CSVは1行ずつ読み込み、一定件数ごとに重複チェックとバッチINSERTを行う(ファイル全体をメモリに載せない)
+// 全文検索の索引・提出状況・提出カレンダーには、チャンクごとに登録した日報の分のみ反映する
+// 重複チェック後に画面から同じ従業員・日付の日報が登録された場合は、そのチャンクを1行ずつ登録し直し、重複した行をエラーとする
+@Service
+public class ReportImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportImportService.class);
+
+    // 1回のチェック・INSERTで扱う件数
+    static final int CHUNK_SIZE = 1000;
+
+    // 取込CSVのヘッダ
+    static final String[] HEADERS = { "employee_code", "report_date", "title", "content" };
+
+    // エラーファイルIDの形式
+    private static final Pattern ERROR_FILE_ID_PATTERN = Pattern.compile("^[0-9a-f\\-]{36}$");
+
+    private static final String INSERT_SQL = "INSERT INTO reports "
+            + "(id, report_date, title, content, employee_code, delete_flg, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportIdAllocator reportIdAllocator;
+    private final ReportSearchService reportSearchService;
+    private final ReportStatsService reportStatsService;
+    private final ReportCalendarService reportCalendarService;
+    private final Path errorFileDir;
+    private final Duration errorFileRetention;
+
+    public ReportImportService(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate, ReportIdAllocator reportIdAllocator,
+            ReportSearchService reportSearchService, ReportStatsService reportStatsService,
+            ReportCalendarService reportCalendarService,
+            @Value("${app.report-import.error-file-retention:24h}") Duration errorFileRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.reportIdAllocator = reportIdAllocator;
+        this.reportSearchService = reportSearchService;
+        this.reportStatsService = reportStatsService;
+        this.reportCalendarService = reportCalendarService;
+        this.errorFileDir = Path.of(System.getProperty("java.io.tmpdir"), "report-import");
+        this.errorFileRetention = errorFileRetention;
+    }
+
+    // 取込結果
+    // errorFileIdはエラー行がない場合null
+    public record ImportResult(long importedCount, long errorCount, String errorFileId) {
+    }
+
+    // CSV取込処理
+    public ImportResult importCsv(InputStream inputStream) throws IOException {
+        Files.createDirectories(errorFileDir);
+        String errorFileId = UUID.randomUUID().toString();
+        Path errorFile = errorFileDir.resolve(errorFileId + ".csv");
+
+        // 存在確認済みの従業員番号(チャンクをまたいで再利用する)
+        Set<String> knownEmployees = new HashSet<>();
+        Set<String> unknownEmployees = new HashSet<>();
+
+        long importedCount = 0;
+        long errorCount = 0;
+
+        CSVFormat format = CSVFormat.DEFAULT.builder().setHeader(HEADERS).setSkipHeaderRecord(true).build();
+        try (Reader reader = skipBom(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+                CSVParser parser = format.parse(reader);
+                BufferedWriter writer = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8);
+                CSVPrinter errorPrinter = new CSVPrinter(writer,
+                        CSVFormat.DEFAULT.builder().setHeader("line", "error").build())) {
+
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (CSVRecord record : parser) {
+                ImportRow row = parseRow(record);
+                if (row.error != null) {
+                    errorPrinter.printRecord(row.line, row.error);
+                    errorCount++;
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    ChunkResult result = importChunk(chunk, knownEmployees, unknownEmployees, errorPrinter);
+                    importedCount += result.imported;
+                    errorCount += result.errors;
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                ChunkResult result = importChunk(chunk, knownEmployees, unknownEmployees, errorPrinter);
+                importedCount += result.imported;
+                errorCount += result.errors;
+            }
+        }
+
+        if (errorCount == 0) {
+            Files.deleteIfExists(errorFile);
+            return new ImportResult(importedCount, errorCount, null);
+        }
+        return new ImportResult(importedCount, errorCount, errorFileId);
+    }
+
+    // エラーファイルの取得(存在しない、または不正なIDの場合はnull)
+    public Path findErrorFile(String errorFileId) {
+        if (errorFileId == null || !ERROR_FILE_ID_PATTERN.matcher(errorFileId).matches()) {
+            return null;
+        }
+        Path errorFile = errorFileDir.resolve(errorFileId + ".csv");
+        return Files.exists(errorFile) ? errorFile : null;
+    }
+
+    // 保存期間(app.report-import.error-file-retention)を過ぎたエラーファイルの削除(1時間ごと)
+    @Scheduled(cron = "${app.report-import.error-file-cleanup-cron:0 0 * * * *}")
+    public int deleteExpiredErrorFiles() throws IOException {
+        if (!Files.isDirectory(errorFileDir)) {
+            return 0;
+        }
+        Instant expiry = Instant.now().minus(errorFileRetention);
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(errorFileDir, "*.csv")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(expiry) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} expired import error files", deleted);
+        }
+        return deleted;
+    }
+
+    // 1チャンク分の取込(チャンク単位でコミット)
+    private ChunkResult importChunk(List<ImportRow> chunk, Set<String> knownEmployees, Set<String> unknownEmployees,
+            CSVPrinter errorPrinter) throws IOException {
+        ChunkResult result = new ChunkResult();
+        List<ImportRow> insertRows = new ArrayList<>(chunk.size());
+
+        // IDはチャンクの件数分をトランザクション外で確保する(エラー行の分は欠番となる)
+        long firstId = reportIdAllocator.allocate(chunk.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                loadEmployees(chunk, knownEmployees, unknownEmployees);
+                Set<String> existing = findExistingPairs(chunk);
+
+                for (ImportRow row : chunk) {
+                    if (!knownEmployees.contains(row.employeeCode)) {
+                        row.error = "存在しない社員番号です";
+                    } else if (!existing.add(row.key())) {
+                        // DB上、またはファイル内で既に同じ従業員・日付の日報がある
+                        row.error = "既に登録されている日付です";
+                    } else {
+                        insertRows.add(row);
+                    }
+                }
+
+                long id = firstId;
+                for (ImportRow row : insertRows) {
+                    row.id = id++;
+                }
+                insert(insertRows, now);
+            });
+        } catch (DuplicateKeyException e) {
+            // チャンク全体がロールバックされるため、1行ずつ登録し直す
+            log.info("Import chunk conflicted with a concurrent report, retrying {} rows one by one",
+                    insertRows.size());
+            for (ImportRow row : insertRows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row), now));
+                } catch (DuplicateKeyException rowError) {
+                    row.error = "既に登録されている日付です";
+                }
+            }
+            insertRows.removeIf(row -> row.error != null);
+        }
+
+        for (ImportRow row : chunk) {
+            if (row.error != null) {
+                errorPrinter.printRecord(row.line, row.error);
+                result.errors++;
+            }
+        }
+        result.imported = insertRows.size();
+        return result;
+    }
+
+    // 日報のバッチINSERT(同一従業員・同一日付の日報がある場合はDuplicateKeyException)
+    // 登録した日報を反映する(提出状況は同じトランザクションで加算し、索引・カレンダーはコミット後に反映)
+    private void insert(List<ImportRow> rows, Timestamp now) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.id);
+            ps.setDate(2, Date.valueOf(row.reportDate));
+            ps.setString(3, row.title);
+            ps.setString(4, row.content);
+            ps.setString(5, row.employeeCode);
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+        });
+
+        LocalDateTime updatedAt = now.toLocalDateTime();
+        reportSearchService.indexAll(rows.stream().map(row -> row.toReport(updatedAt)).toList());
+        Map<String, List<LocalDate>> datesByEmployee = new HashMap<>();
+        for (ImportRow row : rows) {
+            datesByEmployee.computeIfAbsent(row.employeeCode, k -> new ArrayList<>()).add(row.reportDate);
+        }
+        datesByEmployee.forEach((employeeCode, dates) -> {
+            reportStatsService.addedAll(employeeCode, dates);
+            reportCalendarService.addedAll(employeeCode, dates);
+        });
+    }
+
+    // チャンク内の未確認の従業員番号をまとめて存在確認する
+    private void loadEmployees(List<ImportRow> chunk, Set<String> knownEmployees, Set<String> unknownEmployees) {
+        Set<String> codes = new HashSet<>();
+        for (ImportRow row : chunk) {
+            if (!knownEmployees.contains(row.employeeCode) && !unknownEmployees.contains(row.employeeCode)) {
+                codes.add(row.employeeCode);
+            }
+        }
+        if (codes.isEmpty()) {
+            return;
+        }
+        List<String> found = namedParameterJdbcTemplate.queryForList(
+                "SELECT code FROM employees WHERE delete_flg = 0 AND code IN (:codes)",
+                new MapSqlParameterSource("codes", codes), String.class);
+        knownEmployees.addAll(found);
+        codes.removeAll(found);
+        unknownEmployees.addAll(codes);
+    }
+
+    // チャンク内の従業員・日付の組み合わせのうち、登録済みのものを取得する
+    private Set<String> findExistingPairs(List<ImportRow> chunk) {
+        Set<String> codes = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (ImportRow row : chunk) {
+            codes.add(row.employeeCode);
+            dates.add(row.reportDate);
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("codes", codes);
+        params.put("dates", dates.stream().map(Date::valueOf).toList());
+
+        Set<String> existing = new HashSet<>();
+        namedParameterJdbcTemplate.query(
+                "SELECT employee_code, report_date FROM reports "
+                        + "WHERE delete_flg = 0 AND employee_code IN (:codes) AND report_date IN (:dates)",
+                params,
+                rs -> {
+                    existing.add(rs.getString(1) + "/" + rs.getDate(2).toLocalDate());
+                });
+        return existing;
+    }
+
+    // 1行分の入力チェック
+    private ImportRow parseRow(CSVRecord record) {
+        ImportRow row = new ImportRow();
+        row.line = record.getRecordNumber() + 1; // ヘッダ行を含めた行番号
+        if (!record.isConsistent()) {
+            row.error = "項目数が正しくありません";
+            return row;
+        }
+        row.employeeCode = record.get("employee_code").trim();
+        row.title = record.get("title");
+        row.content = record.get("content");
+
+        if (row.employeeCode.isEmpty() || row.title.isEmpty() || row.content.isEmpty()) {
+            row.error = "値を入力してください";
+            return row;
+        }
+        if (row.title.length() > 100) {
+            row.error = "タイトルは100文字以下で入力してください";
+            return row;
+        }
+        if (row.content.length() > 600) {
+            row.error = "内容は600文字以下で入力してください";
+            return row;
+        }
+        try {
+            row.reportDate = LocalDate.parse(record.get("report_date").trim());
+        } catch (DateTimeParseException e) {
+            row.error = "日付はyyyy-MM-dd形式で入力してください";
+        }
+        return row;
+    }
+
+    // 先頭のBOM(Excelで保存したCSV)を読み飛ばす
+    private Reader skipBom(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        return reader;
+    }
+
+    // 取込対象の1行
+    private static class ImportRow {
+        long line;
+        long id;
+        String employeeCode;
+        LocalDate reportDate;
+        String title;
+        String content;
+        String error;
+
+        String key() {
+            return employeeCode + "/" + reportDate;
+        }
+
+        // 索引の更新用(索引に含める項目のみ)
+        Report toReport(LocalDateTime updatedAt) {
+            Employee employee = new Employee();
+            employee.setCode(employeeCode);
+            Report report = new Report();
+            report.setId(id);
+            report.setEmployee(employee);
+            report.setReportDate(reportDate);
+            report.setTitle(title);
+            report.setContent(content);
+            report.setUpdatedAt(updatedAt);
+            return report;
+        }
+    }
+
+    // 1チャンク分の取込件数
+    private static class ChunkResult {
+        long imported;
+        long errors;
+    }
+}
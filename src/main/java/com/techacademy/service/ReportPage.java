@@ -0,0 +1,16 @@
+package com.techacademy.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.techacademy.repository.ReportListRow;
+
+// 日報一覧の1ページ分
+// nextReportDate, nextId は次ページの取得位置(最終ページの場合はnull)
+public record ReportPage(List<ReportListRow> reportList, long totalCount, LocalDate nextReportDate, Long nextId) {
+
+    // 次ページが存在するかどうか
+    public boolean hasNext() {
+        return nextId != null;
+    }
+}
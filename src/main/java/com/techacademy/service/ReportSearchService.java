@@ -0,0 +1,365 @@
+package com.techacademy.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportListRow;
+import com.techacademy.repository.ReportRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+// 日報の全文検索(タイトル・内容)
+// 日本語を扱うため、CJKの2-gramで索引を作成する
+// 日報の登録・更新・削除は即座に検索に反映し(NRT)、ディスクへの確定は一定間隔でまとめて行う
+// 索引はローカルディスクに保存し、再起動時は日報の(ID, 更新日時)の指紋が索引と一致していれば再作成しない
+@Service
+public class ReportSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportSearchService.class);
+
+    // 索引の項目名
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_EMPLOYEE_CODE = "employeeCode";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_CONTENT = "content";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
+
+    private final ReportRepository reportRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Analyzer analyzer = new CJKAnalyzer();
+    private final Directory directory;
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+
+    // 索引の書き込みの排他制御
+    // 仮想スレッドでもキャリアスレッドを占有しないよう、synchronizedではなくロックを使う
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // index-dirが未指定の場合はメモリ上に索引を作成する(テスト用)
+    public ReportSearchService(ReportRepository reportRepository, JdbcTemplate jdbcTemplate,
+            EntityManager entityManager, PlatformTransactionManager transactionManager,
+            @Value("${app.report-search.index-dir:}") String indexDir) throws IOException {
+        this.reportRepository = reportRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        this.indexWriter = new IndexWriter(directory,
+                new IndexWriterConfig(analyzer).setOpenMode(OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    // 検索結果(1ページ分)
+    public record SearchResult(List<ReportListRow> reportList, long totalHits, int page, boolean hasNext) {
+    }
+
+    // 起動時に索引と日報テーブルを照合し、異なる場合は再作成する
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndex() throws IOException {
+        if (!isIndexUpToDate()) {
+            log.info("Report search index is out of date, rebuilding");
+            rebuild();
+        }
+    }
+
+    // 索引が日報テーブルと一致しているかどうか
+    // 削除されていない日報の(ID, 更新日時)の指紋で照合する(件数が同じでも、内容の更新漏れを検出する)
+    public boolean isIndexUpToDate() throws IOException {
+        long[] reportChecksum = new long[2];
+        jdbcTemplate.query("SELECT id, updated_at FROM reports WHERE delete_flg = 0", rs -> {
+            reportChecksum[0]++;
+            reportChecksum[1] += fingerprint(rs.getLong(1), toEpochMilli(rs.getTimestamp(2).toLocalDateTime()));
+        });
+
+        long indexCount = 0;
+        long indexChecksum = 0;
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                Bits liveDocs = leaf.reader().getLiveDocs();
+                StoredFields storedFields = leaf.reader().storedFields();
+                for (int doc = 0; doc < leaf.reader().maxDoc(); doc++) {
+                    if (liveDocs != null && !liveDocs.get(doc)) {
+                        continue;
+                    }
+                    Document document = storedFields.document(doc, Set.of(FIELD_ID, FIELD_UPDATED_AT));
+                    IndexableField updatedAt = document.getField(FIELD_UPDATED_AT);
+                    if (updatedAt == null) {
+                        return false; // 更新日時を持たない索引(旧形式)
+                    }
+                    indexCount++;
+                    indexChecksum += fingerprint(Long.parseLong(document.get(FIELD_ID)),
+                            updatedAt.numericValue().longValue());
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return indexCount == reportChecksum[0] && indexChecksum == reportChecksum[1];
+    }
+
+    // 索引の再作成
+    public long rebuild() throws IOException {
+        writeLock.lock();
+        try {
+            indexWriter.deleteAll();
+            Long count = transactionTemplate.execute(status -> {
+                long indexed = 0;
+                try (Stream<Report> reports = reportRepository.streamForExport(null, null, null)) {
+                    for (Report report : (Iterable<Report>) reports::iterator) {
+                        indexWriter.addDocument(toDocument(report));
+                        entityManager.detach(report);
+                        indexed++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return indexed;
+            });
+            commit();
+            return count;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 日報の登録・更新時の索引更新(トランザクション内の場合はコミット後に反映)
+    public void index(Report report) {
+        Document document = toDocument(report);
+        Term term = new Term(FIELD_ID, report.getId().toString());
+        afterCommit(() -> {
+            indexWriter.updateDocument(term, document);
+            refresh();
+        });
+    }
+
+    // 日報の一括登録時の索引更新(まとめて1回で反映する)
+    public void indexAll(List<Report> reports) {
+        List<Document> documents = reports.stream().map(this::toDocument).toList();
+        afterCommit(() -> {
+            for (Document document : documents) {
+                indexWriter.updateDocument(new Term(FIELD_ID, document.get(FIELD_ID)), document);
+            }
+            refresh();
+        });
+    }
+
+    // 日報の削除時の索引更新
+    public void remove(Long id) {
+        afterCommit(() -> {
+            indexWriter.deleteDocuments(new Term(FIELD_ID, id.toString()));
+            refresh();
+        });
+    }
+
+    // 従業員削除時の索引更新(従業員の日報をすべて削除)
+    public void removeByEmployee(String employeeCode) {
+        afterCommit(() -> {
+            indexWriter.deleteDocuments(new Term(FIELD_EMPLOYEE_CODE, employeeCode));
+            refresh();
+        });
+    }
+
+    // 検索処理(スコア順)
+    // employeeCodeが指定された場合はその従業員の日報のみを対象とする
+    @Transactional(readOnly = true)
+    public SearchResult search(String keyword, String employeeCode, int page, int size) throws IOException {
+        if (keyword == null || keyword.isBlank()) {
+            return new SearchResult(List.of(), 0, 0, false);
+        }
+        page = Math.max(page, 0);
+
+        Query query = buildQuery(keyword, employeeCode);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, (page + 1) * size);
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+
+            // 該当ページのIDをスコア順に取り出す
+            List<Long> ids = new ArrayList<>();
+            for (int i = page * size; i < scoreDocs.length; i++) {
+                ids.add(Long.valueOf(searcher.storedFields().document(scoreDocs[i].doc).get(FIELD_ID)));
+            }
+
+            // 表示項目はDBから取得し、スコア順に並べ替える
+            Map<Long, ReportListRow> rows = new HashMap<>();
+            if (!ids.isEmpty()) {
+                for (ReportListRow row : reportRepository.findListRowsByIdIn(ids)) {
+                    rows.put(row.id(), row);
+                }
+            }
+            List<ReportListRow> reportList = new ArrayList<>();
+            for (Long id : ids) {
+                if (rows.containsKey(id)) {
+                    reportList.add(rows.get(id));
+                }
+            }
+
+            long totalHits = topDocs.totalHits.value;
+            return new SearchResult(reportList, totalHits, page, (long) (page + 1) * size < totalHits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    // 未確定の索引の変更をディスクに確定する(一定間隔で実行)
+    // 確定前に異常終了した場合は、起動時の照合で検出して再作成する
+    @Scheduled(fixedDelayString = "${app.report-search.commit-interval:10s}")
+    public void commitPending() {
+        run(() -> {
+            if (indexWriter.hasUncommittedChanges()) {
+                indexWriter.commit();
+            }
+        });
+    }
+
+    // 終了時は未確定の変更も確定する(IndexWriterのclose時にコミットされる)
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    // 検索キーワードからクエリを作成する(キーワード中の記号は検索構文として扱わない)
+    private Query buildQuery(String keyword, String employeeCode) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[] { FIELD_TITLE, FIELD_CONTENT },
+                analyzer, Map.of(FIELD_TITLE, 2.0f, FIELD_CONTENT, 1.0f));
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        Query keywordQuery;
+        try {
+            keywordQuery = parser.parse(QueryParser.escape(keyword.trim()));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+        if (employeeCode == null) {
+            return keywordQuery;
+        }
+        return new BooleanQuery.Builder()
+                .add(keywordQuery, Occur.MUST)
+                .add(new TermQuery(new Term(FIELD_EMPLOYEE_CODE, employeeCode)), Occur.FILTER)
+                .build();
+    }
+
+    private Document toDocument(Report report) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, report.getId().toString(), Field.Store.YES));
+        document.add(new StringField(FIELD_EMPLOYEE_CODE, report.getEmployee().getCode(), Field.Store.NO));
+        document.add(new TextField(FIELD_TITLE, report.getTitle(), Field.Store.NO));
+        document.add(new TextField(FIELD_CONTENT, report.getContent(), Field.Store.NO));
+        document.add(new StoredField(FIELD_UPDATED_AT, toEpochMilli(report.getUpdatedAt())));
+        return document;
+    }
+
+    // 索引の確定と検索への反映(再作成時)
+    private void commit() throws IOException {
+        indexWriter.commit();
+        refresh();
+    }
+
+    // 未確定の変更を検索に反映する
+    private void refresh() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    // 照合用の更新日時(ミリ秒単位、DBの精度の違いの影響を受けないようにする)
+    private static long toEpochMilli(LocalDateTime updatedAt) {
+        return updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // 1件分の(ID, 更新日時)の指紋(行の順序に依存しないよう加算して照合する)
+    private static long fingerprint(long id, long updatedAt) {
+        long h = id * 0x9E3779B97F4A7C15L + updatedAt;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    // トランザクション中の場合はコミット後に、それ以外は即座に実行する
+    private void afterCommit(IndexTask task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    run(task);
+                }
+            });
+        } else {
+            run(task);
+        }
+    }
+
+    private void run(IndexTask task) {
+        writeLock.lock();
+        try {
+            task.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexTask {
+        void run() throws IOException;
+    }
+}
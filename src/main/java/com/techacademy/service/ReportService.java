@@ -1,5 +1,6 @@
 package com.techacademy.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 //import java.time.LocalDateTime;
 import java.util.List;
@@ -9,9 +10,16 @@ import java.util.Objects;
 //import java.util.regex.Pattern;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 //import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.entity.Employee;
@@ -19,46 +27,101 @@ import com.techacademy.entity.Employee;
 //import com.techacademy.entity.Employee;
 import com.techacademy.entity.Report;
 //import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.ReportListRow;
 import com.techacademy.repository.ReportRepository;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.Data;
 
+// 公開メソッドの処理時間を計測する(service.method)
+@Timed(value = "service.method", histogram = true)
 @Data
 @Service
 public class ReportService {
 
     private final ReportRepository reportRepository;
+    private final ReportSearchService reportSearchService;
+    private final ReportStatsService reportStatsService;
+    private final ReportCalendarService reportCalendarService;
 
-    public ReportService(ReportRepository reportRepository) {
+    private final TransactionTemplate transactionTemplate;
+
+    public ReportService(ReportRepository reportRepository, ReportSearchService reportSearchService,
+            ReportStatsService reportStatsService, ReportCalendarService reportCalendarService,
+            PlatformTransactionManager transactionManager) {
         this.reportRepository = reportRepository;
+        this.reportSearchService = reportSearchService;
+        this.reportStatsService = reportStatsService;
+        this.reportCalendarService = reportCalendarService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     // 日報一覧表示処理
+    @Transactional(readOnly = true)
     public List<Report> findAll() {
         return reportRepository.findAll();
     }
 
+    // 日報一覧のページ取得処理
+    // employeeCodeがnullの場合は全従業員、指定ありの場合はその従業員の日報のみを対象とする
+    // reportDate, idには前ページ最終行の値を指定する(先頭ページはnull)
+    @Transactional(readOnly = true)
+    public ReportPage findPage(String employeeCode, LocalDate reportDate, Long id, int size) {
+        // 次ページ有無の判定用に1件多く取得する
+        Limit limit = Limit.of(size + 1);
+        boolean first = reportDate == null || id == null;
+
+        List<ReportListRow> reportList;
+        long totalCount;
+        if (employeeCode == null) {
+            reportList = first ? reportRepository.findFirstPage(limit)
+                    : reportRepository.findPageAfter(reportDate, id, limit);
+            totalCount = reportRepository.count();
+        } else {
+            reportList = first ? reportRepository.findFirstPageByEmployeeCode(employeeCode, limit)
+                    : reportRepository.findPageAfterByEmployeeCode(employeeCode, reportDate, id, limit);
+            totalCount = reportRepository.countByEmployeeCode(employeeCode);
+        }
+
+        if (reportList.size() <= size) {
+            return new ReportPage(reportList, totalCount, null, null);
+        }
+        reportList = reportList.subList(0, size);
+        ReportListRow last = reportList.get(size - 1);
+        return new ReportPage(reportList, totalCount, last.reportDate(), last.id());
+    }
+
     // 日報保存
-    @Transactional
+    // 登録と提出状況の加算は同じトランザクションで行う(索引・カレンダーはコミット後に反映)
+    // 同一従業員・同一日付の重複は事前に検索せず、登録時の一意制約違反で判定する
     public ErrorKinds save(Report report) {
-
-        if (validateReport(report) == ErrorKinds.DATECHECK_ERROR) {
-            return ErrorKinds.DATECHECK_ERROR;
+        try {
+            return transactionTemplate.execute(status -> saveReport(report));
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateDateError(e)) {
+                return ErrorKinds.DATECHECK_ERROR;
+            }
+            throw e;
         }
+    }
+
+    private ErrorKinds saveReport(Report report) {
 
         report.setDeleteFlg(false);
         LocalDateTime now = LocalDateTime.now();
         report.setCreatedAt(now);
         report.setUpdatedAt(now);
 
-        reportRepository.save(report);
+        // 一意制約違反は提出状況の加算前に検出する
+        reportRepository.saveAndFlush(report);
+        reportSearchService.index(report);
+        reportStatsService.added(report.getEmployee().getCode(), report.getReportDate());
+        reportCalendarService.added(report.getEmployee().getCode(), report.getReportDate());
         return ErrorKinds.SUCCESS;
     }
 
-
-
     // 1件を検索
+    @Transactional(readOnly = true)
     public Report findById(Long Id) {
         try {
             //Long reportId = Long.parseLong(Id);
@@ -77,15 +140,26 @@ public class ReportService {
         LocalDateTime now = LocalDateTime.now();
         report.setUpdatedAt(now);
         report.setDeleteFlg(true);
+        reportSearchService.remove(id);
+        reportStatsService.removed(report.getEmployee().getCode(), report.getReportDate());
+        reportCalendarService.removed(report.getEmployee().getCode(), report.getReportDate());
 
         return ErrorKinds.SUCCESS;
     }
 
+    @Transactional(readOnly = true)
     public ErrorKinds validateReport(Report report) {
         if (report.getReportDate() == null || report.getEmployee() == null) {
             return ErrorKinds.SUCCESS; // NULL の場合はチェックしない
         }
 
+        // 日報カレンダーに提出日がなければ重複なし
+        // 提出日がある場合は、カレンダーが削除の反映前の可能性もあるためDBで確認する(更新時は自身の日付を除く)
+        if (reportCalendarService.isLoaded()
+                && !reportCalendarService.hasReport(report.getEmployee().getCode(), report.getReportDate())) {
+            return ErrorKinds.SUCCESS;
+        }
+
         boolean exists = reportRepository.existsByReportDateAndEmployee(
             report.getReportDate(),
             report.getEmployee(),
@@ -95,20 +169,33 @@ public class ReportService {
     }
 
     // 更新処理
-    @Transactional
+    // 既存日報の読み込み1回と変更項目のみのUPDATE 1回で更新する
+    // 画面表示後に他のユーザーが更新していた場合はバージョン不一致でエラーとする
+    // 日付変更時の重複は事前に検索せず、更新時の一意制約違反で判定する
     public ErrorKinds update(Report report) {
-
-        // 3. 既存レポート取得
-        Report existingReport = findById(report.getId());
-
-     // 2. レポート日付が変更された場合のみ、バリデーションを実行
-        if (!Objects.equals(existingReport.getReportDate(), report.getReportDate())) {
-            if (validateReport(report) == ErrorKinds.DATECHECK_ERROR) {
+        try {
+            return transactionTemplate.execute(status -> updateReport(report));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // 読み込み後、コミットまでの間に他のユーザーが更新した場合
+            return ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateDateError(e)) {
                 return ErrorKinds.DATECHECK_ERROR;
             }
+            throw e;
         }
+    }
+
+    private ErrorKinds updateReport(Report report) {
 
-        // 3. 必要なフィールドのみ更新
+        // 1. 既存レポート取得(削除済み・バージョン不一致・バージョン未送信の場合はエラー)
+        Report existingReport = reportRepository.findById(report.getId()).orElse(null);
+        if (existingReport == null || !existingReport.getVersion().equals(report.getVersion())) {
+            return ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+        }
+
+        // 2. 必要なフィールドのみ更新
+        LocalDate oldReportDate = existingReport.getReportDate();
         boolean isUpdated = false;
         if (!Objects.equals(report.getTitle(), existingReport.getTitle())) {
             existingReport.setTitle(report.getTitle());
@@ -123,12 +210,29 @@ public class ReportService {
             isUpdated = true;
         }
 
-        // 4. 更新実施
+        // 3. 更新実施(UPDATEはコミット時に変更項目のみ発行する)
         if (isUpdated) {
             existingReport.setUpdatedAt(LocalDateTime.now());
-            reportRepository.save(existingReport);
+            reportSearchService.index(existingReport);
+            if (!Objects.equals(oldReportDate, existingReport.getReportDate())) {
+                reportStatsService.moved(existingReport.getEmployee().getCode(), oldReportDate,
+                        existingReport.getReportDate());
+                reportCalendarService.moved(existingReport.getEmployee().getCode(), oldReportDate,
+                        existingReport.getReportDate());
+            }
         }
 
         return ErrorKinds.SUCCESS;
     }
+
+    // 同一従業員・同一日付の一意制約違反かどうか
+    private boolean isDuplicateDateError(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(Report.UK_EMPLOYEE_LIVE_DATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,170 @@
+package com.techacademy.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.entity.ReportMonthlyStat;
+import com.techacademy.repository.ReportMonthlyStatRepository;
+import com.techacademy.repository.ReportRepository;
+import com.techacademy.repository.ReportStatRow;
+
+import io.micrometer.core.annotation.Timed;
+
+// 日報の提出状況(従業員・月ごとの提出件数と最終提出日)
+// 日報の登録・更新・削除時に集計表を差分で更新し、提出状況画面は集計表のみを参照する
+// 差分更新は日報の登録・更新・削除と同じトランザクションで行う
+// 日報テーブルを直接変更した場合などのずれは、定期的な再集計で修正する
+// 再集計(全削除・再作成)と差分更新は同時に行わない(再集計の結果に差分が反映されないことや二重に加算されることを防ぐ)
+@Timed(value = "service.method", histogram = true)
+@Service
+public class ReportStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportStatsService.class);
+
+    private final ReportMonthlyStatRepository statRepository;
+    private final ReportRepository reportRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // 差分更新と再集計の排他制御(差分更新どうしは同時に行える)
+    // 差分更新はトランザクションの完了まで保持し、再集計は未コミットの差分がない状態で開始する
+    private final ReentrantReadWriteLock recomputeLock = new ReentrantReadWriteLock();
+
+    public ReportStatsService(ReportMonthlyStatRepository statRepository, ReportRepository reportRepository,
+            PlatformTransactionManager transactionManager) {
+        this.statRepository = statRepository;
+        this.reportRepository = reportRepository;
+        // 再集計は日報の行ロックを待たないよう、コミット済みの日報のみを読む
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    // 月ごとの全社の提出件数
+    public record MonthlyTotal(YearMonth month, long reportCount) {
+    }
+
+    // 日報の登録
+    @Transactional
+    public void added(String employeeCode, LocalDate reportDate) {
+        lockForDelta();
+        statRepository.increment(employeeCode, ReportMonthlyStat.monthOf(reportDate), reportDate);
+    }
+
+    // 従業員の日報の一括登録(月ごとにまとめて加算する)
+    @Transactional
+    public void addedAll(String employeeCode, List<LocalDate> reportDates) {
+        lockForDelta();
+        Map<Integer, List<LocalDate>> byMonth = reportDates.stream()
+                .collect(Collectors.groupingBy(ReportMonthlyStat::monthOf));
+        byMonth.forEach((statMonth, dates) -> statRepository.incrementBy(employeeCode, statMonth, dates.size(),
+                Collections.max(dates)));
+    }
+
+    // 日報の削除
+    @Transactional
+    public void removed(String employeeCode, LocalDate reportDate) {
+        lockForDelta();
+        YearMonth month = YearMonth.from(reportDate);
+        statRepository.decrement(employeeCode, ReportMonthlyStat.monthOf(reportDate), reportDate, month.atDay(1),
+                month.atEndOfMonth());
+        statRepository.deleteEmptyByEmployeeCode(employeeCode);
+    }
+
+    // 日報の日付変更
+    @Transactional
+    public void moved(String employeeCode, LocalDate oldDate, LocalDate newDate) {
+        removed(employeeCode, oldDate);
+        added(employeeCode, newDate);
+    }
+
+    // 従業員の削除(日報はすべて論理削除されるため集計行も削除する)
+    @Transactional
+    public void removeEmployee(String employeeCode) {
+        lockForDelta();
+        statRepository.deleteByEmployeeCode(employeeCode);
+    }
+
+    // 日報テーブルからの再集計(毎日定時に実行)
+    @Scheduled(cron = "${app.report-stats.recompute-cron:0 30 2 * * *}")
+    public long recompute() {
+        Integer count;
+        recomputeLock.writeLock().lock();
+        try {
+            count = transactionTemplate.execute(status -> {
+                statRepository.deleteAllStats();
+                return statRepository.insertFromReports();
+            });
+        } finally {
+            recomputeLock.writeLock().unlock();
+        }
+        log.info("Report stats recomputed ({} rows)", count);
+        return count;
+    }
+
+    // 起動時に集計表と日報の件数を確認し、異なる場合は再集計する
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyStats() {
+        long reportCount = reportRepository.count();
+        long statCount = statRepository.sumReportCount();
+        if (statCount != reportCount) {
+            log.info("Report stats are out of date ({} / {} reports), recomputing", statCount, reportCount);
+            recompute();
+        }
+    }
+
+    // 指定月の従業員ごとの提出状況(社員番号順)
+    @Transactional(readOnly = true)
+    public Page<ReportStatRow> findMonth(YearMonth month, int page, int size) {
+        return statRepository.findMonthlyRows(ReportMonthlyStat.monthOf(month.atDay(1)), PageRequest.of(Math.max(page, 0), size));
+    }
+
+    // 指定月までの直近monthsか月の全社の提出件数(古い順、提出のない月は0件)
+    @Transactional(readOnly = true)
+    public List<MonthlyTotal> findTrend(YearMonth month, int months) {
+        YearMonth from = month.minusMonths(months - 1);
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Object[] row : statRepository.sumByMonth(ReportMonthlyStat.monthOf(from.atDay(1)),
+                ReportMonthlyStat.monthOf(month.atDay(1)))) {
+            counts.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+        List<MonthlyTotal> trend = new ArrayList<>(months);
+        for (YearMonth m = from; !m.isAfter(month); m = m.plusMonths(1)) {
+            trend.add(new MonthlyTotal(m, counts.getOrDefault(ReportMonthlyStat.monthOf(m.atDay(1)), 0L)));
+        }
+        return trend;
+    }
+
+    // 差分更新の開始(再集計中は完了を待つ、ロックはトランザクションの完了時に解放する)
+    private void lockForDelta() {
+        Lock lock = recomputeLock.readLock();
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
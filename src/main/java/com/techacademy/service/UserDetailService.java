@@ -1,30 +1,41 @@
 package com.techacademy.service;
 
-import java.util.Optional;
-
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import com.techacademy.entity.Employee;
-import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.EmployeeAccount;
+
+import io.micrometer.core.annotation.Timed;
 
+// 公開メソッドの処理時間を計測する(service.method)
+@Timed(value = "service.method", histogram = true)
 @Service
-public class UserDetailService implements UserDetailsService {
-    private final EmployeeRepository employeeRepository;
+public class UserDetailService implements UserDetailsService, UserDetailsPasswordService {
+    private final EmployeeService employeeService;
 
-    public UserDetailService(EmployeeRepository repository) {
-        this.employeeRepository = repository;
+    public UserDetailService(EmployeeService employeeService) {
+        this.employeeService = employeeService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<Employee> employee = employeeRepository.findById(username);
+        // 従業員キャッシュを経由して取得
+        EmployeeAccount account = employeeService.findAccount(username);
 
-        if (employee.isEmpty()) {
+        if (account == null) {
             throw new UsernameNotFoundException("Exception:Username Not Found");
         }
-        return new UserDetail(employee.get());
+        return new UserDetail(account.toEmployee());
+    }
+
+    // ログイン成功時、保存済みハッシュのコストが設定値と異なる場合に呼ばれる
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Employee employee = employeeService.updatePasswordHash(user.getUsername(), newPassword);
+        return employee == null ? user : new UserDetail(employee);
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+-- 従業員
+CREATE TABLE employees (
+    code VARCHAR(10) NOT NULL,
+    name VARCHAR(20) NOT NULL,
+    role VARCHAR(10) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    delete_flg TINYINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (code)
+) ENGINE=InnoDB;
+
+-- 従業員一覧(氏名の前方一致・氏名順)
+CREATE INDEX idx_employees_name ON employees (name, code);
+
+-- 日報
+-- live_report_dateは削除されていない日報のみ日付を持つ生成列(同一従業員・同一日付の一意制約用)
+CREATE TABLE reports (
+    id BIGINT NOT NULL,
+    employee_code VARCHAR(10) NOT NULL,
+    report_date DATE NOT NULL,
+    title VARCHAR(100) NOT NULL,
+    content LONGTEXT NOT NULL,
+    delete_flg TINYINT NOT NULL,
+    live_report_date DATE GENERATED ALWAYS AS (CASE WHEN delete_flg = 0 THEN report_date END),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_reports_employee_live_date UNIQUE (employee_code, live_report_date),
+    CONSTRAINT fk_reports_employee FOREIGN KEY (employee_code) REFERENCES employees (code)
+) ENGINE=InnoDB;
+
+-- 日報IDの採番表(Report.id、ReportIdAllocator)
+CREATE TABLE id_generators (
+    name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (name)
+) ENGINE=InnoDB;
+
+INSERT INTO id_generators (name, next_val) VALUES ('reports', 1);
+
+-- 従業員・月ごとの日報提出件数
+CREATE TABLE report_monthly_stats (
+    stat_month INT NOT NULL,
+    employee_code VARCHAR(10) NOT NULL,
+    report_count BIGINT NOT NULL,
+    last_report_date DATE,
+    PRIMARY KEY (stat_month, employee_code)
+) ENGINE=InnoDB;
+
+-- 従業員ごとの最終提出日(提出状況画面)・従業員単位の削除
+CREATE INDEX idx_report_monthly_stats_employee ON report_monthly_stats (employee_code, last_report_date);
@@ -0,0 +1,8 @@
+-- 日報一覧(従業員ごと): 従業員番号・削除フラグで絞り込み、日付・IDの降順に読む(IDは主キーとして索引に含まれる)
+CREATE INDEX idx_reports_employee_list ON reports (employee_code, delete_flg, report_date);
+
+-- 日報一覧(全従業員、管理者): 削除フラグで絞り込み、日付・IDの降順に読む
+CREATE INDEX idx_reports_list ON reports (delete_flg, report_date, id);
+
+-- 内容は600文字以下のため、LONGTEXT(行外に格納)から行内に格納するVARCHARに変更する
+ALTER TABLE reports MODIFY content VARCHAR(600) NOT NULL;
@@ -0,0 +1,116 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void testEncodeAndMatches() {
+        PasswordHashProperties properties = new PasswordHashProperties();
+        properties.setStrength(4);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(properties, registry);
+
+        String encoded = encoder.encode("password1");
+        assertTrue(encoder.matches("password1", encoded));
+        assertFalse(encoder.matches("password2", encoded));
+
+        // 処理時間が計測されていること
+        assertEquals(registry.get("password.hash").tag("operation", "matches").timer().count(), 2);
+
+        encoder.shutdown();
+    }
+
+    @Test
+    void testUpgradeEncoding() {
+        PasswordHashProperties properties = new PasswordHashProperties();
+        properties.setStrength(4);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(properties, new SimpleMeterRegistry());
+
+        // コストが設定値と異なるハッシュは再計算対象
+        assertTrue(encoder.upgradeEncoding("$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO"));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password1")));
+
+        encoder.shutdown();
+    }
+
+    @Test
+    void testRejected() throws Exception {
+        PasswordHashProperties properties = new PasswordHashProperties();
+        properties.setStrength(4);
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(properties, registry);
+
+        // 実行中1件・実行待ち1件で上限に達した状態にする(パスワードの読み出しで待機させる)
+        CountDownLatch release = new CountDownLatch(1);
+        CharSequence blocking = new BlockingPassword(release);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode(blocking));
+        waitFor(registry, "password.hash.active", 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode(blocking));
+        waitFor(registry, "password.hash.queue", 1);
+
+        // 上限を超えた場合は待たずに拒否する
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("password1"));
+        assertEquals(registry.get("password.hash.rejected").counter().count(), 1);
+
+        // 解放後は実行中・実行待ちの計算が完了する
+        release.countDown();
+        String runningHash = running.get();
+        String queuedHash = queued.get();
+        assertTrue(encoder.matches("password1", runningHash));
+        assertTrue(encoder.matches("password1", queuedHash));
+
+        encoder.shutdown();
+    }
+
+    private void waitFor(SimpleMeterRegistry registry, String gauge, double value) throws InterruptedException {
+        for (int i = 0; i < 500 && registry.get(gauge).gauge().value() != value; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(registry.get(gauge).gauge().value(), value);
+    }
+
+    // 読み出し時に解放まで待機するパスワード
+    private static class BlockingPassword implements CharSequence {
+        private final CountDownLatch release;
+
+        BlockingPassword(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String toString() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "password1";
+        }
+
+        @Override
+        public int length() {
+            return toString().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return toString().charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+@SpringBootTest
+@ExtendWith(OutputCaptureExtension.class)
+class DataSourceSettingsLoggerTest {
+
+    @Autowired
+    private DataSourceSettingsLogger logger;
+
+    @Test
+    void testLogSettings(CapturedOutput output) {
+        logger.logSettings();
+
+        // 接続プールの実効値と接続先のDBが出力される
+        assertTrue(output.getOut().contains("Connection pool daily-report: url="));
+        assertTrue(output.getOut().contains("maximumPoolSize=20"));
+        assertTrue(output.getOut().contains("connectionTimeout=5000ms"));
+    }
+}
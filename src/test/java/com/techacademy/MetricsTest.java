@@ -0,0 +1,50 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability // テスト時も計測値を出力する
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void testPrometheus() throws Exception {
+        mockMvc.perform(get("/employees")).andExpect(status().isOk());
+
+        String body = mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk()).andReturn()
+                .getResponse().getContentAsString();
+
+        // サービスのメソッド単位の処理時間(ヒストグラム)
+        assertTrue(body.contains("service_method_seconds_bucket{class=\"com.techacademy.service.EmployeeService\""));
+        assertTrue(body.contains("method=\"findPage\""));
+
+        // リクエスト単位のHibernate統計
+        assertTrue(body.contains("hibernate_request_queries_count{uri=\"/employees\"}"));
+
+        // Hibernate全体の統計・DB接続プール
+        assertTrue(body.contains("hibernate_query_executions_total"));
+        assertTrue(body.contains("hikaricp_connections_active"));
+    }
+
+    @Test
+    void testPrometheusOnApplicationPort() throws Exception {
+        // 業務用ポートでは未ログインで参照できない(ログイン画面へ)
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().is3xxRedirection());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().is3xxRedirection());
+    }
+
+}
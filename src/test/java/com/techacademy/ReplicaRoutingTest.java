@@ -0,0 +1,166 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Report;
+import com.techacademy.service.EmployeeService;
+import com.techacademy.service.ReportService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// レプリカにはプライマリと同じDBを指定し、振り分け件数で確認する
+@SpringBootTest(properties = { "app.datasource.replica.url=${spring.datasource.url}",
+        "app.datasource.replica.pin-duration=60s" })
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FilterRegistrationBean<ReplicaPinningFilter> registration;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Test
+    @WithMockUser
+    void testRouting() throws Exception {
+        ReplicaPinningFilter filter = registration.getFilter();
+
+        // 参照専用トランザクションはレプリカ
+        double replica = count("replica", "read-only");
+        employeeService.findPage(null, null, 0, 10);
+        assertEquals(count("replica", "read-only"), replica + 1);
+
+        // 更新したリクエストでは、以降の参照もプライマリに固定する
+        MockHttpSession session = new MockHttpSession();
+        Report report = newReport(LocalDate.of(2003, 1, 6));
+        AtomicBoolean pinnedAfterWrite = new AtomicBoolean();
+        filter.doFilter(request(session), new MockHttpServletResponse(), (req, res) -> {
+            assertFalse(ReplicaRoutingContext.isPinned());
+            assertEquals(reportService.save(report), ErrorKinds.SUCCESS);
+            pinnedAfterWrite.set(ReplicaRoutingContext.isPinned());
+        });
+        assertTrue(pinnedAfterWrite.get());
+
+        // 同じセッションの次のリクエストもプライマリに固定する
+        double pinned = count("primary", "pinned");
+        filter.doFilter(request(session), new MockHttpServletResponse(), (req, res) -> {
+            assertTrue(ReplicaRoutingContext.isPinned());
+            employeeService.findPage(null, null, 0, 10);
+        });
+        assertEquals(count("primary", "pinned"), pinned + 1);
+
+        // 別のセッションはレプリカ
+        filter.doFilter(request(new MockHttpSession()), new MockHttpServletResponse(),
+                (req, res) -> assertFalse(ReplicaRoutingContext.isPinned()));
+
+        reportService.delete(report.getId(), null);
+    }
+
+    @Test
+    void testLoginRouting() throws Exception {
+        // ログイン処理(Spring Securityのフィルター内)にも振り分け状態を設定する
+        assertTrue(registration.getOrder() < SecurityProperties.DEFAULT_FILTER_ORDER);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO employees (code, name, role, password, delete_flg, created_at, updated_at) "
+                + "VALUES ('L2', 'ログイン確認', 'GENERAL', ?, 0, ?, ?)", new BCryptPasswordEncoder(4).encode("password1"),
+                now, now);
+        try {
+            // 従業員キャッシュへの格納はプライマリから読み、パスワードの再ハッシュ化(更新)でセッションを固定する
+            double replica = count("replica", "read-only");
+            double primaryRead = count("primary", "primary-read");
+            double write = count("primary", "write");
+            MockHttpSession session = (MockHttpSession) mockMvc
+                    .perform(formLogin().user("L2").password("password1")).andExpect(authenticated())
+                    .andReturn().getRequest().getSession(false);
+            assertEquals(count("primary", "primary-read"), primaryRead + 1);
+            assertEquals(count("primary", "write"), write + 1);
+            assertEquals(count("replica", "read-only"), replica);
+
+            // ログイン後のリダイレクト先の参照もプライマリ
+            double pinned = count("primary", "pinned");
+            mockMvc.perform(get("/reports").session(session)).andExpect(status().isOk());
+            assertTrue(count("primary", "pinned") > pinned);
+            assertEquals(count("replica", "read-only"), replica);
+        } finally {
+            jdbcTemplate.update("DELETE FROM employees WHERE code = 'L2'");
+            cacheManager.getCache("employees").evict("L2");
+        }
+    }
+
+    @Test
+    void testCacheReloadReadsPrimary() {
+        // 更新によるキャッシュ削除後の再格納はプライマリから読む(レプリカの古い値を格納しない)
+        employeeService.findAccount("2");
+        employeeService.updatePasswordHash("2", employeeService.findByCode("2").getPassword());
+
+        double replica = count("replica", "read-only");
+        double primaryRead = count("primary", "primary-read");
+        employeeService.findAccount("2");
+        assertEquals(count("primary", "primary-read"), primaryRead + 1);
+        assertEquals(count("replica", "read-only"), replica);
+
+        // キャッシュから取得した場合はDBを参照しない
+        employeeService.findAccount("2");
+        assertEquals(count("primary", "primary-read"), primaryRead + 1);
+    }
+
+    private double count(String target, String reason) {
+        return meterRegistry.get("datasource.routing").tag("target", target).tag("reason", reason).counter().count();
+    }
+
+    private MockHttpServletRequest request(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        return request;
+    }
+
+    private Report newReport(LocalDate reportDate) {
+        Report report = new Report();
+        report.setEmployee(employeeService.findByCode("2"));
+        report.setReportDate(reportDate);
+        report.setTitle("テストタイトル");
+        report.setContent("テスト内容");
+        return report;
+    }
+}
@@ -0,0 +1,49 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 起動時間(起動開始からリクエストを受け付けられるまで)がstartup.budget(pom.xmlで指定)以内であること
+// マイグレーション適用済みのDBに対する再起動を計測する
+// 上限は -Dstartup.budget=20s のように実行時に変更できる
+// 実行環境の性能に左右されるため通常のテストでは実行しない(-Pci で実行する)
+@Tag("startup")
+class StartupTimeTest {
+
+    @Test
+    void testStartupTime() {
+        Duration budget = DurationStyle.detectAndParse(System.getProperty("startup.budget", "15s"));
+
+        // 1回目はマイグレーションの適用(未適用の場合)を含むため計測しない
+        start().close();
+
+        AtomicReference<Duration> timeTaken = new AtomicReference<>();
+        try (ConfigurableApplicationContext context = start(timeTaken)) {
+            System.out.println("Started in " + timeTaken.get().toMillis() + " ms (budget " + budget.toMillis() + " ms)");
+            assertTrue(timeTaken.get().compareTo(budget) <= 0,
+                    "Startup took " + timeTaken.get().toMillis() + " ms, budget is " + budget.toMillis() + " ms");
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return start(new AtomicReference<>());
+    }
+
+    // 空きポートで起動する(管理ポートは起動せず、全文検索の索引はメモリ上に作成する)
+    private ConfigurableApplicationContext start(AtomicReference<Duration> timeTaken) {
+        return new SpringApplicationBuilder(DailyReportSystemApplication.class)
+                .listeners((ApplicationListener<ApplicationReadyEvent>) event -> timeTaken.set(event.getTimeTaken()))
+                .run("--server.port=0", "--app.ajp.port=0", "--management.server.port=-1",
+                        "--app.report-search.index-dir=", "--spring.jpa.show-sql=false");
+    }
+}
@@ -0,0 +1,58 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "app.ajp.port=0")
+class TomcatConnectorMetricsTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testConnectorMetrics() throws Exception {
+        // HTTPコネクタへのリクエスト件数・処理時間が計測される
+        restTemplate.getForEntity("/login", String.class);
+        // (管理ポートのコネクタと区別するため、ポート番号で指定する)
+        FunctionTimer http = meterRegistry.find("tomcat.connector.requests")
+                .tag("connector", c -> c.startsWith("http") && c.endsWith("-" + port)).functionTimer();
+        assertNotNull(http);
+        // 件数はレスポンス送信後に加算されるため、反映を待つ
+        for (int i = 0; i < 50 && http.count() < 1; i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(http.count() >= 1);
+        assertTrue(http.totalTime(TimeUnit.MILLISECONDS) >= 0);
+
+        // AJPコネクタの計測値も登録される
+        Gauge ajpIdle = meterRegistry.find("tomcat.connector.threads.idle").tag("connector", c -> c.startsWith("ajp"))
+                .gauge();
+        assertNotNull(ajpIdle);
+        assertTrue(ajpIdle.value() >= 0);
+        assertNotNull(meterRegistry.find("tomcat.connector.threads.busy").tag("connector", c -> c.startsWith("ajp"))
+                .gauge());
+        assertNotNull(meterRegistry.find("tomcat.connector.threads.queue").tag("connector", c -> c.startsWith("ajp"))
+                .gauge());
+        assertNotNull(meterRegistry.find("tomcat.connector.connections").tag("connector", c -> c.startsWith("ajp"))
+                .gauge());
+    }
+
+}
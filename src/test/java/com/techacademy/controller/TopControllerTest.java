@@ -1,15 +1,24 @@
 package com.techacademy.controller;
 
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.logout;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -23,6 +32,9 @@ class TopControllerTest {
 
     private final WebApplicationContext webApplicationContext;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     TopControllerTest(WebApplicationContext context) {
         this.webApplicationContext = context;
     }
@@ -44,6 +56,26 @@ class TopControllerTest {
 
     }
 
+    // ログイン時のパスワードハッシュの再計算
+    // 保存済みハッシュのコストが設定値(10)と異なる場合、ログイン成功時に設定値のコストで保存し直す
+    @Test
+    void testLoginUpgradesPasswordHash() throws Exception {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO employees (code, name, role, password, delete_flg, created_at, updated_at) "
+                + "VALUES ('L1', 'ログイン確認', 'GENERAL', ?, 0, ?, ?)", new BCryptPasswordEncoder(4).encode("password1"),
+                now, now);
+        try {
+            mockMvc.perform(formLogin().user("L1").password("password1")).andExpect(authenticated());
+
+            String password = jdbcTemplate.queryForObject("SELECT password FROM employees WHERE code = 'L1'",
+                    String.class);
+            assertTrue(password.startsWith("$2a$10$"));
+            assertTrue(new BCryptPasswordEncoder().matches("password1", password));
+        } finally {
+            jdbcTemplate.update("DELETE FROM employees WHERE code = 'L1'");
+        }
+    }
+
     // ログアウト処理
     @Test
     @WithMockUser
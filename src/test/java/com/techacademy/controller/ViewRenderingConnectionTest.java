@@ -0,0 +1,88 @@
+package com.techacademy.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportRepository;
+import com.techacademy.service.EmployeeService;
+import com.techacademy.service.UserDetail;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// 画面の描画中にDB接続を保持していないこと
+// (描画直前のpostHandleで、使用中の接続数を記録する)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ViewRenderingConnectionTest.Config.class)
+class ViewRenderingConnectionTest {
+
+    // 描画直前の使用中の接続数
+    private static final List<Integer> activeConnections = new ArrayList<>();
+
+    @TestConfiguration
+    static class Config implements WebMvcConfigurer {
+
+        @Autowired
+        private HikariDataSource dataSource;
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                        ModelAndView modelAndView) {
+                    activeConnections.add(dataSource.getHikariPoolMXBean().getActiveConnections());
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        activeConnections.clear();
+    }
+
+    @Test
+    void testNoConnectionDuringRendering() throws Exception {
+        UserDetail admin = new UserDetail(employeeService.findByCode("1"));
+        Report report = reportRepository.findAll().get(0);
+
+        // 一覧・詳細・更新画面(詳細・更新画面は日報の従業員名を表示する)
+        mockMvc.perform(get("/reports").with(user(admin))).andExpect(status().isOk());
+        mockMvc.perform(get("/reports/{id}/", report.getId()).with(user(admin))).andExpect(status().isOk());
+        mockMvc.perform(get("/reports/{id}/update", report.getId()).with(user(admin))).andExpect(status().isOk());
+        mockMvc.perform(get("/employees").with(user(admin))).andExpect(status().isOk());
+
+        assertEquals(activeConnections, List.of(0, 0, 0, 0));
+    }
+}
@@ -0,0 +1,78 @@
+package com.techacademy.datagen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.transaction.Transactional;
+
+@SpringBootTest
+@Transactional
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testGenerate() {
+        SyntheticDataProperties properties = new SyntheticDataProperties();
+        properties.setEmployees(10);
+        properties.setAdmins(2);
+        properties.setCodePrefix("T");
+        properties.setWorkdays(20);
+        properties.setSubmissionRate(0.8);
+        properties.setBatchSize(7);
+
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(jdbcTemplate, properties, "hash");
+        SyntheticDataGenerator.Result result = generator.generate();
+        List<String> first = snapshot();
+
+        // 件数・管理者数
+        assertEquals(result.employeeCount(), 10);
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM employees WHERE code LIKE 'T%' AND role = 'ADMIN'", Long.class), 2L);
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reports WHERE employee_code LIKE 'T%'", Long.class), result.reportCount());
+        assertTrue(result.reportCount() > 0 && result.reportCount() < 10 * 20);
+
+        // 日報は平日のみ、内容は600文字以内
+        for (LocalDate date : jdbcTemplate.queryForList(
+                "SELECT DISTINCT report_date FROM reports WHERE employee_code LIKE 'T%'", LocalDate.class)) {
+            assertNotEquals(date.getDayOfWeek(), DayOfWeek.SATURDAY);
+            assertNotEquals(date.getDayOfWeek(), DayOfWeek.SUNDAY);
+            assertFalse(date.isAfter(properties.getEndDate()));
+        }
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reports WHERE employee_code LIKE 'T%' AND CHAR_LENGTH(content) > 600",
+                Long.class), 0L);
+
+        // 同じ設定で再生成すると同じデータになる
+        deleteGenerated();
+        generator.generate();
+        assertEquals(snapshot(), first);
+
+        // seedを変えると異なるデータになる
+        deleteGenerated();
+        properties.setSeed(2);
+        new SyntheticDataGenerator(jdbcTemplate, properties, "hash").generate();
+        assertNotEquals(snapshot(), first);
+    }
+
+    private List<String> snapshot() {
+        return jdbcTemplate.queryForList("SELECT CONCAT(e.code, '/', e.name, '/', r.report_date, '/', r.title, '/', "
+                + "r.content) FROM reports r JOIN employees e ON e.code = r.employee_code WHERE e.code LIKE 'T%' "
+                + "ORDER BY e.code, r.report_date", String.class);
+    }
+
+    private void deleteGenerated() {
+        jdbcTemplate.update("DELETE FROM reports WHERE employee_code LIKE 'T%'");
+        jdbcTemplate.update("DELETE FROM employees WHERE code LIKE 'T%'");
+    }
+}
@@ -0,0 +1,218 @@
+package com.techacademy.loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.techacademy.datagen.SyntheticDataGenerator;
+import com.techacademy.datagen.SyntheticDataProperties;
+
+// 1日の利用状況を再現する負荷試験(mvn -Ploadtest test で実行する)
+// ログイン集中の後、一般従業員は日報の一覧・登録・更新、管理者は従業員一覧・日報一覧を繰り返す
+// 画面ごとの応答時間の99パーセンタイルがloadtest.propertiesの上限を超えた場合は失敗とする
+// 設定値は -Dloadtest.users=100 のように実行時に変更できる
+@Tag("load")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/migration",
+        "spring.jpa.show-sql=false",
+        "app.ajp.port=0" })
+class DailyLoadTest {
+
+    // 計測対象の画面(loadtest.propertiesの上限値のキー)
+    private static final List<String> LABELS = List.of("login-form", "login", "reports", "reports-add-form", "reports-add",
+            "reports-update-form", "reports-update", "employees");
+
+    private static final String PASSWORD = "password1";
+
+    private static final Pattern REPORT_LINK_PATTERN = Pattern.compile("/reports/(\\d+)/\"");
+    // 更新画面のバージョン(楽観ロック用の隠し項目)
+    private static final Pattern VERSION_PATTERN = Pattern.compile("name=\"version\" value=\"(\\d+)\"");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final AtomicLong errors = new AtomicLong();
+
+    private SyntheticDataGenerator generator;
+    private int adminCount;
+    private String warmUpCode;
+
+    @Test
+    void testDailyLoad() throws Exception {
+        Properties settings = loadSettings();
+        int users = Integer.parseInt(settings.getProperty("loadtest.users"));
+        int admins = Integer.parseInt(settings.getProperty("loadtest.admins"));
+        int iterations = Integer.parseInt(settings.getProperty("loadtest.iterations"));
+        int history = Integer.parseInt(settings.getProperty("loadtest.history-reports"));
+
+        createEmployees(users, admins, history);
+
+        // 起動直後の初回処理(テンプレートのコンパイル等)は計測しない
+        Map<String, Histogram> warmUp = new ConcurrentHashMap<>();
+        runUser(warmUpCode, 3, warmUp);
+        runAdmin(adminCode(0), 3, warmUp);
+
+        // 全員のログインを同時に開始する
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(users + admins);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String code = userCode(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                runUser(code, iterations, histograms);
+                return null;
+            }));
+        }
+        for (int i = 0; i < admins; i++) {
+            String code = adminCode(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                runAdmin(code, iterations, histograms);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // 結果の出力と上限値の確認
+        Map<String, Long> exceeded = new TreeMap<>();
+        System.out.printf("%-20s %8s %10s %10s %10s %10s%n", "label", "count", "p50(ms)", "p90(ms)", "p99(ms)",
+                "max(ms)");
+        for (String label : LABELS) {
+            Histogram histogram = histograms.get(label);
+            if (histogram == null) {
+                continue; // 実行しなかった画面(管理者0人の場合など)
+            }
+            long p99 = histogram.getValueAtPercentile(99) / 1000;
+            System.out.printf("%-20s %8d %10.1f %10.1f %10d %10.1f%n", label, histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0, p99,
+                    histogram.getMaxValue() / 1000.0);
+            long budget = Long.parseLong(settings.getProperty("loadtest.p99." + label));
+            if (p99 > budget) {
+                exceeded.put(label, p99);
+            }
+        }
+        assertEquals(0, errors.get(), "unexpected responses");
+        assertTrue(exceeded.isEmpty(), "p99 budget exceeded: " + exceeded);
+    }
+
+    // 一般従業員: ログイン後、日報一覧 → 登録 → 一覧 → 更新 を繰り返す
+    private void runUser(String code, int iterations, Map<String, Histogram> histograms)
+            throws IOException, InterruptedException {
+        LoadTestClient client = login(code, histograms);
+        for (int i = 0; i < iterations; i++) {
+            String reportDate = LocalDate.of(2030, 1, 1).plusDays(i).toString();
+
+            client.get("reports", "/reports");
+            client.get("reports-add-form", "/reports/add");
+            client.post("reports-add", "/reports/add",
+                    Map.of("reportDate", reportDate, "title", "負荷試験の日報" + i, "content", "負荷試験で登録した日報の内容です。"));
+
+            // 登録した日報(一覧の先頭)を更新する
+            Matcher matcher = REPORT_LINK_PATTERN.matcher(client.get("reports", "/reports"));
+            assertTrue(matcher.find());
+            String id = matcher.group(1);
+            Matcher version = VERSION_PATTERN.matcher(client.get("reports-update-form", "/reports/" + id + "/update"));
+            assertTrue(version.find());
+            client.post("reports-update", "/reports/" + id + "/update", Map.of("employee.code", code, "version",
+                    version.group(1), "reportDate", reportDate, "title", "負荷試験の日報(更新)" + i, "content",
+                    "負荷試験で更新した日報の内容です。"));
+        }
+    }
+
+    // 管理者: ログイン後、従業員一覧・日報一覧の閲覧を繰り返す
+    private void runAdmin(String code, int iterations, Map<String, Histogram> histograms)
+            throws IOException, InterruptedException {
+        LoadTestClient client = login(code, histograms);
+        for (int i = 0; i < iterations; i++) {
+            client.get("employees", "/employees");
+            client.get("reports", "/reports");
+        }
+    }
+
+    private LoadTestClient login(String code, Map<String, Histogram> histograms)
+            throws IOException, InterruptedException {
+        LoadTestClient client = new LoadTestClient("http://localhost:" + port, histograms, errors);
+        client.get("login-form", "/login");
+        String location = client.post("login", "/login", Map.of("username", code, "password", PASSWORD));
+        assertFalse(location.contains("error"), "login failed: " + code);
+        return client;
+    }
+
+    // 従業員と過去の日報を生成する(先頭が管理者、続いて一般従業員、最後が準備運転用の従業員)
+    private void createEmployees(int users, int admins, int history) {
+        SyntheticDataProperties properties = new SyntheticDataProperties();
+        properties.setCodePrefix("L");
+        properties.setAdmins(Math.max(admins, 1));
+        properties.setEmployees(properties.getAdmins() + users + 1);
+        properties.setEndDate(LocalDate.of(2029, 12, 31));
+        properties.setWorkdays(history);
+        properties.setSubmissionRate(1.0);
+
+        generator = new SyntheticDataGenerator(jdbcTemplate, properties,
+                new BCryptPasswordEncoder(10).encode(PASSWORD));
+        generator.generate();
+        adminCount = properties.getAdmins();
+        warmUpCode = generator.employeeCode(properties.getEmployees() - 1);
+    }
+
+    private String userCode(int index) {
+        return generator.employeeCode(adminCount + index);
+    }
+
+    private String adminCode(int index) {
+        return generator.employeeCode(index);
+    }
+
+    // loadtest.propertiesを読み込み、システムプロパティで上書きする
+    private static Properties loadSettings() throws IOException {
+        Properties settings = new Properties();
+        try (InputStream in = DailyLoadTest.class.getResourceAsStream("/loadtest.properties")) {
+            settings.load(in);
+        }
+        for (String name : settings.stringPropertyNames()) {
+            String override = System.getProperty(name);
+            if (override != null) {
+                settings.setProperty(name, override);
+            }
+        }
+        return settings;
+    }
+}
@@ -0,0 +1,80 @@
+package com.techacademy.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// 負荷試験の利用者1人分のHTTPセッション(Cookie・CSRFトークンを保持する)
+// リクエストごとの応答時間を計測対象(label)ごとのヒストグラムに記録する
+class LoadTestClient {
+
+    private static final Pattern CSRF_PATTERN = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final Map<String, Histogram> histograms;
+    private final AtomicLong errors;
+
+    private String csrfToken;
+
+    LoadTestClient(String baseUrl, Map<String, Histogram> histograms, AtomicLong errors) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder().cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER).build();
+        this.histograms = histograms;
+        this.errors = errors;
+    }
+
+    // 画面の取得(画面内のCSRFトークンを保持する)
+    String get(String label, String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(label, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                200);
+        Matcher matcher = CSRF_PATTERN.matcher(response.body());
+        if (matcher.find()) {
+            csrfToken = matcher.group(1);
+        }
+        return response.body();
+    }
+
+    // フォームの送信(成功時はリダイレクトされる)
+    // 戻り値はリダイレクト先
+    String post(String label, String path, Map<String, String> form) throws IOException, InterruptedException {
+        Map<String, String> params = new LinkedHashMap<>(form);
+        params.put("_csrf", csrfToken);
+        String body = params.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return send(label, request, 302).headers().firstValue("Location").orElse("");
+    }
+
+    private HttpResponse<String> send(String label, HttpRequest request, int expectedStatus)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+
+        histograms.computeIfAbsent(label, key -> new ConcurrentHistogram(3)).recordValue(elapsedMicros);
+        if (response.statusCode() != expectedStatus) {
+            errors.incrementAndGet();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,52 @@
+package com.techacademy.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Report;
+import com.techacademy.service.EmployeeService;
+import com.techacademy.service.ReportService;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportIdAllocatorTest {
+
+    @Autowired
+    private ReportIdAllocator allocator;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Test
+    void testAllocate() {
+        // 連続して確保した範囲は重ならない
+        long first = allocator.allocate(3);
+        long second = allocator.allocate(Report.ID_ALLOCATION_SIZE * 2);
+        assertEquals(second, first + 3);
+
+        // Hibernateの採番(日報登録)はJDBCで確保済みの範囲と重ならない
+        Report report = new Report();
+        report.setEmployee(employeeService.findByCode("2"));
+        report.setReportDate(LocalDate.of(2004, 1, 5));
+        report.setTitle("テストタイトル");
+        report.setContent("テスト内容");
+        assertEquals(reportService.save(report), ErrorKinds.SUCCESS);
+        assertFalse(report.getId() >= first && report.getId() < second + Report.ID_ALLOCATION_SIZE * 2);
+
+        // 続けてJDBCで確保する範囲もHibernateが確保した範囲(登録した日報のIDを含む)以降となる
+        assertTrue(allocator.allocate(1) > report.getId());
+
+        reportService.delete(report.getId(), null);
+    }
+}
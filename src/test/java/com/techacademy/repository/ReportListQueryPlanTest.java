@@ -0,0 +1,216 @@
+package com.techacademy.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.datagen.SyntheticDataGenerator;
+import com.techacademy.datagen.SyntheticDataProperties;
+import com.techacademy.service.ReportPage;
+import com.techacademy.service.ReportService;
+
+// 日報一覧のクエリが日報テーブルを全件走査しないこと(索引を使うこと)
+// 一覧表示で実行されたSQLとパラメータを記録し、同じSQL・パラメータでEXPLAINを実行して確認する
+// (MySQL: typeがALLの行がないこと H2: tableScanを含まないこと)
+// 件数が少ないと索引を使わない実行計画になるため、従業員20人 × 250件の日報を生成して確認する
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Import(ReportListQueryPlanTest.RecordingConfiguration.class)
+class ReportListQueryPlanTest {
+
+    // 実行したSQLの記録先(記録中のスレッドのみ)
+    private static final ThreadLocal<List<RecordedQuery>> RECORDED = new ThreadLocal<>();
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private SyntheticDataGenerator generator;
+    private boolean mysql;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        SyntheticDataProperties properties = new SyntheticDataProperties();
+        properties.setEmployees(20);
+        properties.setAdmins(0);
+        properties.setCodePrefix("X");
+        properties.setWorkdays(250);
+        properties.setSubmissionRate(1.0);
+        generator = new SyntheticDataGenerator(jdbcTemplate, properties, "hash");
+        generator.generate();
+
+        try (Connection connection = dataSource.getConnection()) {
+            mysql = connection.getMetaData().getDatabaseProductName().startsWith("MySQL");
+        }
+        // 生成した件数を統計情報に反映する
+        jdbcTemplate.execute(mysql ? "ANALYZE TABLE reports" : "ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM reports WHERE employee_code LIKE 'X%'");
+        jdbcTemplate.update("DELETE FROM employees WHERE code LIKE 'X%'");
+    }
+
+    @Test
+    void testListQueriesUseIndex() throws SQLException {
+        List<RecordedQuery> queries = record(() -> {
+            // 全従業員(管理者)の先頭ページ・次ページ
+            ReportPage page = reportService.findPage(null, null, null, 20);
+            reportService.findPage(null, page.nextReportDate(), page.nextId(), 20);
+
+            // 従業員ごとの先頭ページ・次ページ
+            ReportPage employeePage = reportService.findPage(generator.employeeCode(1), null, null, 20);
+            reportService.findPage(generator.employeeCode(1), employeePage.nextReportDate(), employeePage.nextId(),
+                    20);
+        });
+
+        // 一覧・件数のクエリ(4ページ分)
+        assertEquals(queries.size(), 8);
+        for (RecordedQuery query : queries) {
+            Plan plan = explain(query);
+            assertFalse(plan.fullScan(), "Full scan: " + query.sql() + "\n" + plan.text());
+        }
+    }
+
+    // 処理中に実行したSQLとパラメータを記録する
+    private List<RecordedQuery> record(Runnable task) {
+        List<RecordedQuery> queries = new ArrayList<>();
+        RECORDED.set(queries);
+        try {
+            task.run();
+        } finally {
+            RECORDED.remove();
+        }
+        return queries;
+    }
+
+    private Plan explain(RecordedQuery query) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (Map.Entry<Integer, Object> parameter : query.parameters().entrySet()) {
+                statement.setObject(parameter.getKey(), parameter.getValue());
+            }
+            StringBuilder text = new StringBuilder();
+            boolean fullScan = false;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    if (mysql) {
+                        text.append(rs.getString("table")).append(": type=").append(rs.getString("type"))
+                                .append(", key=").append(rs.getString("key")).append('\n');
+                        fullScan |= "ALL".equals(rs.getString("type"));
+                    } else {
+                        text.append(rs.getString(1)).append('\n');
+                        fullScan |= rs.getString(1).contains("tableScan");
+                    }
+                }
+            }
+            return new Plan(text.toString(), fullScan);
+        }
+    }
+
+    // 記録したSQLとパラメータ(パラメータ番号順)
+    private record RecordedQuery(String sql, Map<Integer, Object> parameters) {
+    }
+
+    private record Plan(String text, boolean fullScan) {
+    }
+
+    // 接続を記録用の接続に置き換える
+    @TestConfiguration
+    static class RecordingConfiguration {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new RecordingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    static class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return recording(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return recording(super.getConnection(username, password));
+        }
+    }
+
+    // 記録中のスレッドで作成したPreparedStatementのSQLとパラメータを記録する
+    private static Connection recording(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ReportListQueryPlanTest.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    List<RecordedQuery> queries = RECORDED.get();
+                    if (queries != null && result instanceof PreparedStatement statement
+                            && method.getName().equals("prepareStatement")) {
+                        Map<Integer, Object> parameters = new TreeMap<>();
+                        queries.add(new RecordedQuery((String) args[0], parameters));
+                        return recording(statement, parameters);
+                    }
+                    return result;
+                });
+    }
+
+    private static PreparedStatement recording(PreparedStatement statement, Map<Integer, Object> parameters) {
+        return (PreparedStatement) Proxy.newProxyInstance(ReportListQueryPlanTest.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer index) {
+                        parameters.put(index, method.getName().equals("setNull") ? null : args[1]);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -8,11 +8,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.techacademy.PasswordHashingBusyException;
+import com.techacademy.constants.ErrorKinds;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Employee.Role;
+import com.techacademy.repository.EmployeeAccount;
+import com.techacademy.repository.EmployeeListRow;
 
 @SpringBootTest
 @ExtendWith(SpringExtension.class)
@@ -21,6 +29,12 @@ class EmployeeServiceTest {
     @Autowired
     private EmployeeService service;
 
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Test
     @WithMockUser
     void testFindAll() {
@@ -62,4 +76,111 @@ class EmployeeServiceTest {
 
     }
 
+    @Test
+    @WithMockUser
+    void testFindPage() {
+
+        // 社員番号順で1件ずつ取得
+        Page<EmployeeListRow> firstPage = service.findPage("", "code", 0, 1);
+        assertEquals(firstPage.getTotalElements(), 2);
+        assertEquals(firstPage.getContent().size(), 1);
+        assertEquals(firstPage.getContent().get(0).code(), "1");
+        assertTrue(firstPage.hasNext());
+
+        // 氏名の前方一致で絞り込み
+        Page<EmployeeListRow> namePage = service.findPage("田中", "name", 0, 20);
+        assertEquals(namePage.getTotalElements(), 1);
+        assertEquals(namePage.getContent().get(0).code(), "2");
+        assertEquals(namePage.getContent().get(0).name(), "田中　太郎");
+
+    }
+
+    @Test
+    @WithMockUser
+    void testFindAccountCache() {
+
+        // 2回目以降はキャッシュから同じ値が返る(エンティティはキャッシュしない)
+        EmployeeAccount account = service.findAccount("2");
+        assertSame(account, service.findAccount("2"));
+        assertNotSame(account.toEmployee(), account.toEmployee());
+
+        // 更新時はコミット後にキャッシュから削除される
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(service.update(renameInput("2", "田中　次郎")), ErrorKinds.SUCCESS);
+            assertSame(account, service.findAccount("2"));
+        });
+        EmployeeAccount updated = service.findAccount("2");
+        assertNotSame(account, updated);
+        assertEquals(updated.name(), "田中　次郎");
+
+        // 元に戻す
+        assertEquals(service.update(renameInput("2", "田中　太郎")), ErrorKinds.SUCCESS);
+        assertEquals(service.findAccount("2").name(), "田中　太郎");
+
+        // バージョンが送信されていない場合は更新しない
+        Employee noVersion = renameInput("2", "田中　次郎");
+        noVersion.setVersion(null);
+        assertEquals(service.update(noVersion), ErrorKinds.OPTIMISTIC_LOCK_ERROR);
+        assertEquals(service.findByCode("2").getName(), "田中　太郎");
+
+    }
+
+    @Test
+    @WithMockUser
+    @Transactional
+    void testDelete() {
+
+        UserDetail userDetail = new UserDetail(service.findByCode("1"));
+        long employeeCount = service.findPage("", "code", 0, 20).getTotalElements();
+        long reportCount = reportService.findPage(null, null, null, 20).totalCount();
+        long employeeReportCount = reportService.findPage("2", null, null, 20).totalCount();
+        EmployeeService.DeleteResult result = service.delete("2", userDetail);
+        assertEquals(result.errorKinds(), ErrorKinds.SUCCESS);
+        assertEquals(result.deletedReportCount(), (int) employeeReportCount);
+
+        // 従業員と従業員の日報が論理削除されている
+        assertEquals(service.findPage("", "code", 0, 20).getTotalElements(), employeeCount - 1);
+        assertEquals(reportService.findPage("2", null, null, 20).totalCount(), 0);
+        assertEquals(reportService.findPage(null, null, null, 20).totalCount(), reportCount - employeeReportCount);
+
+        // 削除済み、または存在しない従業員の場合は日報を更新しない
+        assertEquals(service.delete("2", userDetail), new EmployeeService.DeleteResult(ErrorKinds.CHECK_OK, 0));
+        assertEquals(service.delete("99", userDetail), new EmployeeService.DeleteResult(ErrorKinds.CHECK_OK, 0));
+        assertEquals(reportService.findPage(null, null, null, 20).totalCount(), reportCount - employeeReportCount);
+
+    }
+
+    @Test
+    void testPasswordBusy() {
+
+        // ハッシュ計算が混み合っている場合は入力画面のエラーとなる
+        PasswordEncoder busyEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new PasswordHashingBusyException("Password hashing is busy", null);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw new PasswordHashingBusyException("Password hashing is busy", null);
+            }
+        };
+        EmployeeService busyService = new EmployeeService(null, null, busyEncoder, null, null, null, null);
+        Employee employee = new Employee();
+        employee.setPassword("password1");
+        assertEquals(busyService.employeePasswordCheck(employee), ErrorKinds.PASSWORD_BUSY_ERROR);
+        assertEquals(employee.getPassword(), "password1");
+
+    }
+
+    // 氏名のみを変更する更新内容(パスワードは空欄のため変更しない)
+    private Employee renameInput(String code, String name) {
+        Employee input = new Employee();
+        input.setCode(code);
+        input.setName(name);
+        input.setPassword("");
+        input.setVersion(service.findByCode(code).getVersion());
+        return input;
+    }
+
 }
@@ -0,0 +1,117 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+import com.techacademy.service.ReportCalendarService.CalendarRow;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportCalendarServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2002, 3);
+
+    @Autowired
+    private ReportCalendarService service;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Test
+    @WithMockUser
+    void testCalendar() {
+        Employee employee = employeeService.findByCode("2");
+
+        // 起動時に読み込まれている
+        assertTrue(service.isLoaded());
+
+        // 登録すると提出日が設定される
+        Report first = newReport(employee, LocalDate.of(2002, 3, 1));
+        Report second = newReport(employee, LocalDate.of(2002, 3, 31));
+        assertEquals(reportService.save(first), ErrorKinds.SUCCESS);
+        assertEquals(reportService.save(second), ErrorKinds.SUCCESS);
+        CalendarRow row = findRow();
+        assertTrue(row.submitted(1));
+        assertFalse(row.submitted(2));
+        assertTrue(row.submitted(31));
+        assertEquals(row.submittedCount(), 2);
+
+        // 未提出者一覧
+        assertEquals(service.findMissing(LocalDate.of(2002, 3, 1)).stream().map(e -> e.code()).toList(),
+                List.of("1"));
+        Report other = newReport(employeeService.findByCode("1"), LocalDate.of(2002, 3, 1));
+        assertEquals(reportService.save(other), ErrorKinds.SUCCESS);
+        assertTrue(service.findMissing(LocalDate.of(2002, 3, 1)).isEmpty());
+        reportService.delete(other.getId(), null);
+
+        // 重複チェックはカレンダーに提出日がなければ重複なし、ある場合はDBで確認する(更新時は自身の日付を除く)
+        assertEquals(reportService.validateReport(newReport(employee, LocalDate.of(2002, 3, 1))),
+                ErrorKinds.DATECHECK_ERROR);
+        assertEquals(reportService.validateReport(newReport(employee, LocalDate.of(2002, 3, 2))),
+                ErrorKinds.SUCCESS);
+        Report self = newReport(employee, LocalDate.of(2002, 3, 1));
+        self.setId(first.getId());
+        assertEquals(reportService.validateReport(self), ErrorKinds.SUCCESS);
+
+        // カレンダーにのみ提出日がある場合(DBに日報がない場合)は重複なし
+        service.added("2", LocalDate.of(2002, 3, 3));
+        assertEquals(reportService.validateReport(newReport(employee, LocalDate.of(2002, 3, 3))),
+                ErrorKinds.SUCCESS);
+        service.removed("2", LocalDate.of(2002, 3, 3));
+
+        // 日付を変更すると提出日が移動する
+        Report update = newReport(employee, LocalDate.of(2002, 4, 1));
+        update.setId(second.getId());
+        update.setVersion(second.getVersion());
+        assertEquals(reportService.update(update), ErrorKinds.SUCCESS);
+        assertFalse(findRow().submitted(31));
+        assertTrue(service.hasReport("2", LocalDate.of(2002, 4, 1)));
+
+        // 削除すると提出日が解除される
+        reportService.delete(first.getId(), null);
+        reportService.delete(second.getId(), null);
+        assertEquals(findRow().submittedCount(), 0);
+        assertFalse(service.hasReport("2", LocalDate.of(2002, 4, 1)));
+
+        // 再読込しても同じ内容になる(日報テーブルから読み込む)
+        Report kept = newReport(employee, LocalDate.of(2002, 3, 15));
+        assertEquals(reportService.save(kept), ErrorKinds.SUCCESS);
+        service.reload();
+        assertEquals(findRow().submittedCount(), 1);
+        assertTrue(findRow().submitted(15));
+        assertFalse(service.hasReport("2", LocalDate.of(2002, 4, 1)));
+
+        reportService.delete(kept.getId(), null);
+    }
+
+    private CalendarRow findRow() {
+        return service.findMonth(MONTH, 0, 100).getContent().stream()
+                .filter(row -> row.employeeCode().equals("2")).findFirst().orElseThrow();
+    }
+
+    private Report newReport(Employee employee, LocalDate reportDate) {
+        Report report = new Report();
+        report.setEmployee(employee);
+        report.setReportDate(reportDate);
+        report.setTitle("テストタイトル");
+        report.setContent("テスト内容");
+        return report;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportExportServiceTest {
+
+    @Autowired
+    private ReportExportService service;
+
+    @Test
+    void testExportCsv() throws Exception {
+
+        // 絞り込みなし
+        StringWriter writer = new StringWriter();
+        assertEquals(service.exportCsv(null, null, null, writer), 2);
+        String[] lines = writer.toString().split("\r\n");
+        assertEquals(lines.length, 3);
+        assertTrue(lines[0].startsWith("\uFEFFemployee_code,report_date,title,content"));
+
+        // 従業員で絞り込み
+        StringWriter employeeWriter = new StringWriter();
+        assertEquals(service.exportCsv(null, null, "2", employeeWriter), 1);
+        assertTrue(employeeWriter.toString().contains("田中　太郎の記載、タイトル"));
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportListRow;
+import com.techacademy.repository.ReportStatRow;
+import com.techacademy.service.ReportImportService.ImportResult;
+import com.techacademy.service.ReportSearchService.SearchResult;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Import(ReportImportServiceTest.ConflictConfiguration.class)
+class ReportImportServiceTest {
+
+    // 取込の重複チェック直後に1度だけ実行する処理(同時登録の再現用)
+    private static volatile Runnable afterExistingCheck;
+
+    @Autowired
+    private ReportImportService service;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportSearchService searchService;
+
+    @Autowired
+    private ReportStatsService statsService;
+
+    @Autowired
+    private ReportCalendarService calendarService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Transactional
+    void testImportCsv() throws Exception {
+        String csv = "\uFEFFemployee_code,report_date,title,content\n"
+                + "1,2020-01-06,タイトル1,\"内容1,カンマあり\"\n" // 正常
+                + "1,2020-01-06,タイトル2,内容2\n" // ファイル内で日付重複
+                + "99,2020-01-06,タイトル3,内容3\n" // 存在しない社員番号
+                + "2,2020/01/06,タイトル4,内容4\n" // 日付形式エラー
+                + "2,2020-01-07,タイトル5,内容5\n"; // 正常
+        long count = reportService.findPage("1", null, null, 20).totalCount();
+
+        ImportResult result = service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(result.importedCount(), 2);
+        assertEquals(result.errorCount(), 3);
+        assertEquals(reportService.findPage("1", null, null, 20).totalCount(), count + 1);
+
+        // エラー行はエラーファイルに出力される
+        Path errorFile = service.findErrorFile(result.errorFileId());
+        List<String> lines = Files.readAllLines(errorFile, StandardCharsets.UTF_8);
+        assertEquals(lines.size(), 4);
+        assertTrue(lines.get(1).startsWith("5,"));
+        assertTrue(lines.get(2).startsWith("3,"));
+        assertTrue(lines.get(3).startsWith("4,"));
+        Files.delete(errorFile);
+
+        // 不正なIDは参照できない
+        assertNull(service.findErrorFile("../../etc/passwd"));
+    }
+
+    @Test
+    void testImportUpdatesDerivedData() throws Exception {
+        String csv = "employee_code,report_date,title,content\n"
+                + "2,2019-05-07,取込反映確認,内容1\n"
+                + "2,2019-05-08,取込反映確認,内容2\n"
+                + "99,2019-05-09,取込反映確認,内容3\n"; // 存在しない社員番号
+
+        ImportResult result = service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(result.importedCount(), 2);
+
+        // 登録した日報のみ全文検索の索引・提出状況・提出カレンダーに反映される
+        SearchResult searchResult = searchService.search("取込反映確認", null, 0, 20);
+        assertEquals(searchResult.totalHits(), 2);
+        ReportStatRow row = statsService.findMonth(YearMonth.of(2019, 5), 0, 100).getContent().stream()
+                .filter(r -> r.employeeCode().equals("2")).findFirst().orElseThrow();
+        assertEquals(row.reportCount(), 2);
+        assertTrue(calendarService.hasReport("2", LocalDate.of(2019, 5, 7)));
+        assertTrue(calendarService.hasReport("2", LocalDate.of(2019, 5, 8)));
+
+        for (ReportListRow report : searchResult.reportList()) {
+            reportService.delete(report.id(), null);
+        }
+        assertEquals(searchService.search("取込反映確認", null, 0, 20).totalHits(), 0);
+        assertFalse(calendarService.hasReport("2", LocalDate.of(2019, 5, 7)));
+
+        // 保存期間を過ぎたエラーファイルは削除される
+        Path errorFile = service.findErrorFile(result.errorFileId());
+        assertEquals(service.deleteExpiredErrorFiles(), 0);
+        assertNotNull(service.findErrorFile(result.errorFileId()));
+        Files.setLastModifiedTime(errorFile, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        assertEquals(service.deleteExpiredErrorFiles(), 1);
+        assertNull(service.findErrorFile(result.errorFileId()));
+    }
+
+    @Test
+    void testImportConflictWithConcurrentSave() throws Exception {
+        String csv = "employee_code,report_date,title,content\n"
+                + "2,2018-06-04,取込競合確認,内容1\n"
+                + "2,2018-06-05,取込競合確認,内容2\n";
+
+        // 重複チェックの後、バッチINSERTの前に画面から同じ日付の日報が登録される
+        Report report = new Report();
+        report.setEmployee(employeeService.findByCode("2"));
+        report.setReportDate(LocalDate.of(2018, 6, 4));
+        report.setTitle("取込競合確認");
+        report.setContent("画面から登録");
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        afterExistingCheck = () -> {
+            afterExistingCheck = null;
+            requiresNew.executeWithoutResult(status -> assertEquals(reportService.save(report), ErrorKinds.SUCCESS));
+        };
+
+        ImportResult result;
+        try {
+            result = service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        } finally {
+            afterExistingCheck = null;
+        }
+
+        // 競合した行のみエラーとなり、残りの行は登録される
+        assertEquals(result.importedCount(), 1);
+        assertEquals(result.errorCount(), 1);
+        Path errorFile = service.findErrorFile(result.errorFileId());
+        List<String> lines = Files.readAllLines(errorFile, StandardCharsets.UTF_8);
+        assertEquals(lines.size(), 2);
+        assertTrue(lines.get(1).startsWith("2,"));
+        Files.delete(errorFile);
+
+        // 登録された日報の分のみ派生データに反映される
+        SearchResult searchResult = searchService.search("取込競合確認", null, 0, 20);
+        assertEquals(searchResult.totalHits(), 2);
+        ReportStatRow row = statsService.findMonth(YearMonth.of(2018, 6), 0, 100).getContent().stream()
+                .filter(r -> r.employeeCode().equals("2")).findFirst().orElseThrow();
+        assertEquals(row.reportCount(), 2);
+        assertTrue(calendarService.hasReport("2", LocalDate.of(2018, 6, 5)));
+
+        for (ReportListRow listRow : searchResult.reportList()) {
+            reportService.delete(listRow.id(), null);
+        }
+    }
+
+    @TestConfiguration
+    static class ConflictConfiguration {
+
+        @Bean
+        static BeanPostProcessor conflictingJdbcTemplatePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof NamedParameterJdbcTemplate template
+                            ? new ConflictingJdbcTemplate(template) : bean;
+                }
+            };
+        }
+    }
+
+    // 取込の重複チェック(登録済みの日報の検索)の後に割り込み処理を実行する
+    static class ConflictingJdbcTemplate extends NamedParameterJdbcTemplate {
+
+        ConflictingJdbcTemplate(NamedParameterJdbcTemplate template) {
+            super(template.getJdbcTemplate());
+        }
+
+        @Override
+        public void query(String sql, Map<String, ?> paramMap, RowCallbackHandler rch) {
+            super.query(sql, paramMap, rch);
+            Runnable hook = afterExistingCheck;
+            if (hook != null && sql.startsWith("SELECT employee_code, report_date FROM reports")) {
+                hook.run();
+            }
+        }
+    }
+
+}
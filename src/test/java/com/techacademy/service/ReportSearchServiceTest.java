@@ -0,0 +1,74 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.service.ReportSearchService.SearchResult;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportSearchServiceTest {
+
+    @Autowired
+    private ReportSearchService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testSearch() throws Exception {
+        service.rebuild();
+
+        // 全従業員の日報から検索
+        SearchResult result = service.search("記載", null, 0, 20);
+        assertEquals(result.totalHits(), 2);
+        assertEquals(result.reportList().size(), 2);
+        assertFalse(result.hasNext());
+
+        // 従業員を指定した場合はその従業員の日報のみ
+        SearchResult employeeResult = service.search("記載", "2", 0, 20);
+        assertEquals(employeeResult.totalHits(), 1);
+        assertEquals(employeeResult.reportList().get(0).employeeCode(), "2");
+
+        // タイトル・内容に含まれる語句のみ一致する
+        assertEquals(service.search("田中", null, 0, 20).totalHits(), 1);
+        assertEquals(service.search("存在しない語句", null, 0, 20).totalHits(), 0);
+
+        // 検索構文の記号はエラーにせず、検索語として扱う
+        assertEquals(service.search("記載 (", null, 0, 20).totalHits(), 2);
+    }
+
+    @Test
+    void testVerifyIndex() throws Exception {
+        service.rebuild();
+        assertTrue(service.isIndexUpToDate());
+
+        // 件数が同じでも、索引に反映されていない更新は検出する
+        Long id = jdbcTemplate.queryForObject("SELECT MIN(id) FROM reports WHERE delete_flg = 0", Long.class);
+        Timestamp updatedAt = jdbcTemplate.queryForObject("SELECT updated_at FROM reports WHERE id = ?",
+                Timestamp.class, id);
+        jdbcTemplate.update("UPDATE reports SET updated_at = ? WHERE id = ?",
+                Timestamp.valueOf(updatedAt.toLocalDateTime().plusSeconds(1)), id);
+        try {
+            assertFalse(service.isIndexUpToDate());
+            service.verifyIndex();
+            assertTrue(service.isIndexUpToDate());
+        } finally {
+            jdbcTemplate.update("UPDATE reports SET updated_at = ? WHERE id = ?", updatedAt, id);
+            service.rebuild();
+        }
+
+        // 定期的な確定の後も一致する
+        service.commitPending();
+        assertTrue(service.isIndexUpToDate());
+    }
+
+}
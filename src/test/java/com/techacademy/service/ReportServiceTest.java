@@ -0,0 +1,200 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.HibernateRequestStatistics;
+import com.techacademy.HibernateRequestStatistics.Counts;
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Employee.Role;
+import com.techacademy.entity.Report;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportServiceTest {
+
+    @Autowired
+    private ReportService service;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReportSearchService searchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @WithMockUser
+    void testFindPage() {
+        // 一覧の先頭(日付の新しい順)になるよう、他の日報より後の日付で登録する
+        long total = service.findPage(null, null, null, 1).totalCount();
+        long employeeTotal = service.findPage("2", null, null, 1).totalCount();
+        Report older = newReport(employeeService.findByCode("2"), LocalDate.of(2099, 12, 30));
+        Report newer = newReport(employeeService.findByCode("1"), LocalDate.of(2099, 12, 31));
+        assertEquals(service.save(older), ErrorKinds.SUCCESS);
+        assertEquals(service.save(newer), ErrorKinds.SUCCESS);
+
+        // 全従業員の先頭ページ(1件ずつ取得)
+        ReportPage firstPage = service.findPage(null, null, null, 1);
+        assertEquals(firstPage.totalCount(), total + 2);
+        assertEquals(firstPage.reportList().size(), 1);
+        assertEquals(firstPage.reportList().get(0).id(), newer.getId());
+        assertTrue(firstPage.hasNext());
+
+        // 次ページ
+        ReportPage nextPage = service.findPage(null, firstPage.nextReportDate(), firstPage.nextId(), 1);
+        assertEquals(nextPage.totalCount(), total + 2);
+        assertEquals(nextPage.reportList().size(), 1);
+        assertEquals(nextPage.reportList().get(0).id(), older.getId());
+
+        // 従業員を指定した場合はその従業員の日報のみ取得
+        ReportPage employeePage = service.findPage("2", null, null, 20);
+        assertEquals(employeePage.totalCount(), employeeTotal + 1);
+        assertEquals(employeePage.reportList().get(0).id(), older.getId());
+        assertTrue(employeePage.reportList().stream().allMatch(row -> row.employeeCode().equals("2")));
+
+        service.delete(older.getId(), null);
+        service.delete(newer.getId(), null);
+    }
+
+    @Test
+    @WithMockUser
+    void testSaveDuplicateDate() {
+        Employee employee = employeeService.findByCode("2");
+
+        // 登録済みの日付はエラー
+        Report existing = newReport(employee, LocalDate.of(2000, 1, 3));
+        assertEquals(service.save(existing), ErrorKinds.SUCCESS);
+        Report duplicate = newReport(employee, LocalDate.of(2000, 1, 3));
+        assertEquals(service.save(duplicate), ErrorKinds.DATECHECK_ERROR);
+
+        // 未登録の日付は登録できる
+        Report report = newReport(employee, LocalDate.of(2000, 1, 4));
+        assertEquals(service.save(report), ErrorKinds.SUCCESS);
+
+        // 削除済みの日報と同じ日付は登録できる
+        service.delete(report.getId(), null);
+        Report again = newReport(employee, LocalDate.of(2000, 1, 4));
+        assertEquals(service.save(again), ErrorKinds.SUCCESS);
+
+        // 日付の変更で重複した場合もエラー
+        Report update = newReport(employee, LocalDate.of(2000, 1, 3));
+        update.setId(again.getId());
+        update.setVersion(again.getVersion());
+        assertEquals(service.update(update), ErrorKinds.DATECHECK_ERROR);
+
+        service.delete(again.getId(), null);
+        service.delete(existing.getId(), null);
+    }
+
+    @Test
+    @WithMockUser
+    void testUpdateConflict() {
+        Employee employee = employeeService.findByCode("2");
+        Report report = newReport(employee, LocalDate.of(2000, 1, 5));
+        assertEquals(service.save(report), ErrorKinds.SUCCESS);
+        Long version = report.getVersion();
+
+        // タイトルのみの更新は読み込み1回・UPDATE 1回
+        Report first = newReport(employee, report.getReportDate());
+        first.setId(report.getId());
+        first.setVersion(version);
+        first.setTitle("更新後タイトル");
+        Counts counts = HibernateRequestStatistics.begin();
+        try {
+            assertEquals(service.update(first), ErrorKinds.SUCCESS);
+        } finally {
+            HibernateRequestStatistics.end();
+        }
+        assertEquals(counts.getStatements(), 2L);
+        Report updated = service.findById(report.getId());
+        assertEquals(updated.getTitle(), "更新後タイトル");
+        assertEquals(updated.getVersion(), version + 1);
+
+        // 同じ画面(更新前のバージョン)からの更新はエラーとなり、先の更新内容が残る
+        Report second = newReport(employee, report.getReportDate());
+        second.setId(report.getId());
+        second.setVersion(version);
+        second.setTitle("後から更新したタイトル");
+        assertEquals(service.update(second), ErrorKinds.OPTIMISTIC_LOCK_ERROR);
+        assertEquals(service.findById(report.getId()).getTitle(), "更新後タイトル");
+
+        // バージョンが送信されていない場合もエラー
+        Report noVersion = newReport(employee, report.getReportDate());
+        noVersion.setId(report.getId());
+        noVersion.setTitle("バージョンなしのタイトル");
+        assertEquals(service.update(noVersion), ErrorKinds.OPTIMISTIC_LOCK_ERROR);
+        assertEquals(service.findById(report.getId()).getTitle(), "更新後タイトル");
+
+        service.delete(report.getId(), null);
+    }
+
+    @Test
+    @WithMockUser
+    void testUpdateAfterEmployeeDeleted() throws Exception {
+        // 削除用の従業員と日報
+        Employee employee = new Employee();
+        employee.setCode("9022");
+        employee.setName("削除　競合");
+        employee.setPassword("password1");
+        employee.setRole(Role.GENERAL);
+        assertEquals(employeeService.save(employee), ErrorKinds.SUCCESS);
+        Report report = newReport(employeeService.findByCode("9022"), LocalDate.of(2000, 1, 7));
+        assertEquals(service.save(report), ErrorKinds.SUCCESS);
+
+        // 日報の読み込み後、コミットまでの間に従業員が削除された場合は更新しない
+        UserDetail admin = new UserDetail(employeeService.findByCode("1"));
+        Report edit = newReport(report.getEmployee(), report.getReportDate());
+        edit.setId(report.getId());
+        edit.setVersion(report.getVersion());
+        edit.setTitle("退職競合確認");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> transaction.executeWithoutResult(status -> {
+            assertEquals(service.update(edit), ErrorKinds.SUCCESS);
+            requiresNew.executeWithoutResult(
+                    s -> assertEquals(employeeService.delete("9022", admin).errorKinds(), ErrorKinds.SUCCESS));
+        }));
+
+        // 削除後の画面からの更新もエラーとなり、削除した日報は索引に戻らない
+        assertEquals(service.update(edit), ErrorKinds.OPTIMISTIC_LOCK_ERROR);
+        assertEquals(searchService.search("退職競合確認", null, 0, 20).totalHits(), 0);
+    }
+
+    @Test
+    void testSaveAsLoginUser() {
+        // ログイン中のユーザー(従業員キャッシュから作成したエンティティ)の日報を登録できる
+        Employee employee = new UserDetail(employeeService.findAccount("2").toEmployee()).getEmployee();
+        Report report = newReport(employee, LocalDate.of(2000, 1, 6));
+        assertEquals(service.save(report), ErrorKinds.SUCCESS);
+        assertEquals(service.findById(report.getId()).getEmployee().getName(), employee.getName());
+
+        service.delete(report.getId(), null);
+    }
+
+    private Report newReport(Employee employee, LocalDate reportDate) {
+        Report report = new Report();
+        report.setEmployee(employee);
+        report.setReportDate(reportDate);
+        report.setTitle("テストタイトル");
+        report.setContent("テスト内容");
+        return report;
+    }
+
+}
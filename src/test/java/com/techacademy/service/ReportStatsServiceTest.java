@@ -0,0 +1,148 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+import com.techacademy.entity.ReportMonthlyStat;
+import com.techacademy.repository.ReportMonthlyStatRepository;
+import com.techacademy.repository.ReportRepository;
+import com.techacademy.repository.ReportStatRow;
+import com.techacademy.service.ReportStatsService.MonthlyTotal;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportStatsServiceTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2001, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2001, 2);
+
+    @Autowired
+    private ReportStatsService service;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private ReportMonthlyStatRepository statRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @WithMockUser
+    void testIncrementalUpdate() {
+        Employee employee = employeeService.findByCode("2");
+
+        // 登録すると提出件数・最終提出日が更新される
+        Report first = newReport(employee, LocalDate.of(2001, 1, 4));
+        Report second = newReport(employee, LocalDate.of(2001, 1, 10));
+        assertEquals(reportService.save(first), ErrorKinds.SUCCESS);
+        assertEquals(reportService.save(second), ErrorKinds.SUCCESS);
+        assertEquals(findRow(JANUARY).reportCount(), 2);
+        assertEquals(monthlyLast(JANUARY), LocalDate.of(2001, 1, 10));
+
+        // 日付を翌月に変更すると件数が移動し、最終提出日は残りの日報から求め直す
+        Report update = newReport(employee, LocalDate.of(2001, 2, 3));
+        update.setId(second.getId());
+        update.setVersion(second.getVersion());
+        assertEquals(reportService.update(update), ErrorKinds.SUCCESS);
+        assertEquals(findRow(JANUARY).reportCount(), 1);
+        assertEquals(monthlyLast(JANUARY), LocalDate.of(2001, 1, 4));
+        assertEquals(findRow(FEBRUARY).reportCount(), 1);
+
+        // 全社の推移
+        List<MonthlyTotal> trend = service.findTrend(FEBRUARY, 3);
+        assertEquals(trend.size(), 3);
+        assertEquals(trend.get(0), new MonthlyTotal(YearMonth.of(2000, 12), 0));
+        assertEquals(trend.get(1), new MonthlyTotal(JANUARY, 1));
+        assertEquals(trend.get(2), new MonthlyTotal(FEBRUARY, 1));
+
+        // 削除すると件数が減り、0件の集計行は残らない
+        reportService.delete(first.getId(), null);
+        reportService.delete(second.getId(), null);
+        assertEquals(findRow(JANUARY).reportCount(), 0);
+        assertEquals(findRow(FEBRUARY).reportCount(), 0);
+        assertFalse(statRepository.existsById(new ReportMonthlyStat.Key("2", 200101)));
+
+        // 集計表の合計は日報件数と一致する
+        assertEquals(statRepository.sumReportCount(), reportRepository.count());
+    }
+
+    @Test
+    void testRecompute() {
+        // 集計表がずれていても再集計で日報件数と一致する
+        service.added("2", LocalDate.of(2001, 3, 1));
+        assertNotEquals(statRepository.sumReportCount(), reportRepository.count());
+
+        service.recompute();
+        assertEquals(statRepository.sumReportCount(), reportRepository.count());
+        assertEquals(findRow(YearMonth.of(2001, 3)).reportCount(), 0);
+    }
+
+    @Test
+    void testRecomputeWaitsForDelta() throws Exception {
+        // 未コミットの差分更新がある間は再集計を開始しない
+        CompletableFuture<Long> recompute = new TransactionTemplate(transactionManager).execute(status -> {
+            service.added("2", LocalDate.of(2001, 4, 1));
+            CompletableFuture<Long> future = CompletableFuture.supplyAsync(service::recompute);
+            assertThrows(TimeoutException.class, () -> future.get(500, TimeUnit.MILLISECONDS));
+            status.setRollbackOnly();
+            return future;
+        });
+
+        // 差分更新の完了後に再集計する
+        recompute.get(10, TimeUnit.SECONDS);
+        assertEquals(statRepository.sumReportCount(), reportRepository.count());
+        assertFalse(statRepository.existsById(new ReportMonthlyStat.Key("2", 200104)));
+    }
+
+    @Test
+    void testFindMonthNegativePage() {
+        // 負のページ番号は先頭ページとして扱う
+        assertEquals(service.findMonth(JANUARY, -1, 50).getNumber(), 0);
+    }
+
+    private ReportStatRow findRow(YearMonth month) {
+        return service.findMonth(month, 0, 50).getContent().stream()
+                .filter(row -> row.employeeCode().equals("2")).findFirst().orElseThrow();
+    }
+
+    private LocalDate monthlyLast(YearMonth month) {
+        return statRepository.findById(new ReportMonthlyStat.Key("2",
+                month.getYear() * 100 + month.getMonthValue())).orElseThrow().getLastReportDate();
+    }
+
+    private Report newReport(Employee employee, LocalDate reportDate) {
+        Report report = new Report();
+        report.setEmployee(employee);
+        report.setReportDate(reportDate);
+        report.setTitle("テストタイトル");
+        report.setContent("テスト内容");
+        return report;
+    }
+
+}